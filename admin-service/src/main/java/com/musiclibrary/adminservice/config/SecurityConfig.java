@@ -51,11 +51,24 @@ public class SecurityConfig {
                             "/auth/**",
                             "/api/auth/**"
                         ).permitAll()
+                        // Warming the segment cache costs storage reads, so only signed-in callers may
+                        .requestMatchers(HttpMethod.POST, "/api/songs/*/segments/prefetch").authenticated()
                         // Public API endpoints
                         .requestMatchers(
                             "/api/songs/visible", 
                             "/api/songs/search/**",
-                            "/api/songs/*/stream"
+                            "/api/songs/suggest",
+                            "/api/songs/changes",
+                            "/api/songs/releases",
+                            "/api/songs/batch",
+                            "/api/songs/*/stream",
+                            "/api/songs/*/waveform",
+                            "/api/songs/*/segments",
+                            "/api/songs/*/segments/**",
+                            "/api/albums",
+                            "/api/albums/**",
+                            "/api/artists",
+                            "/api/artists/**"
                         ).permitAll()
                         // Admin API endpoints
                         .requestMatchers(
@@ -0,0 +1,56 @@
+package com.musiclibrary.adminservice.controller;
+
+import com.musiclibrary.adminservice.dto.BrowseGroupPageDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.service.BrowseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Browse", description = "APIs for browsing albums and artists")
+public class BrowseController {
+    
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    @Autowired
+    private BrowseService browseService;
+    
+    @GetMapping("/albums")
+    @Operation(summary = "Browse albums", description = "Albums of visible songs in alphabetical order with song counts " +
+            "and earliest release dates. Pass nextCursor as after for the next page")
+    public ResponseEntity<BrowseGroupPageDTO> getAlbums(@RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(browseService.getAlbums(after, pageSize(limit)));
+    }
+    
+    @GetMapping("/albums/{name}/songs")
+    @Operation(summary = "Get album songs", description = "Visible songs of an album ordered by release date, then name")
+    public ResponseEntity<List<Song>> getAlbumSongs(@PathVariable String name) {
+        List<Song> songs = browseService.getAlbumSongs(name);
+        return songs == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(songs);
+    }
+    
+    @GetMapping("/artists")
+    @Operation(summary = "Browse artists", description = "Singers of visible songs in alphabetical order with song counts " +
+            "and earliest release dates. Pass nextCursor as after for the next page")
+    public ResponseEntity<BrowseGroupPageDTO> getArtists(@RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(browseService.getArtists(after, pageSize(limit)));
+    }
+    
+    @GetMapping("/artists/{name}/songs")
+    @Operation(summary = "Get artist songs", description = "Visible songs of a singer ordered by name")
+    public ResponseEntity<List<Song>> getArtistSongs(@PathVariable String name) {
+        List<Song> songs = browseService.getArtistSongs(name);
+        return songs == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(songs);
+    }
+    
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
@@ -1,31 +1,109 @@
 package com.musiclibrary.adminservice.controller;
 
+import com.musiclibrary.adminservice.dto.BulkUpdateResultDTO;
+import com.musiclibrary.adminservice.dto.ImportReportDTO;
+import com.musiclibrary.adminservice.dto.SearchResultDTO;
+import com.musiclibrary.adminservice.dto.SongBulkUpdateDTO;
+import com.musiclibrary.adminservice.dto.SongChangeFeedDTO;
+import com.musiclibrary.adminservice.dto.SongDTO;
+import com.musiclibrary.adminservice.dto.SongPageDTO;
+import com.musiclibrary.adminservice.dto.SuggestionDTO;
+import com.musiclibrary.adminservice.dto.VisibleSongIdsDTO;
 import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.exception.DuplicateResourceException;
+import com.musiclibrary.adminservice.service.BrowseService;
+import com.musiclibrary.adminservice.service.CatalogSnapshotService;
+import com.musiclibrary.adminservice.service.SongChangeLogService;
+import com.musiclibrary.adminservice.service.SongImportService;
 import com.musiclibrary.adminservice.service.SongService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/songs")
 @Tag(name = "Song Management", description = "APIs for managing songs")
 public class SongController {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_CHANGES_PAGE = 1000;
+    private static final int MAX_RELEASES_PAGE = 500;
+    private static final int MAX_BATCH_IDS = 1000;
+    
     @Autowired
     private SongService songService;
     
+    @Autowired
+    private SongImportService songImportService;
+    
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+    
+    @Autowired
+    private SongChangeLogService songChangeLogService;
+    
+    @Autowired
+    private BrowseService browseService;
+    
     @PostMapping
-    @Operation(summary = "Create a new song", description = "Add a new song to the library")
+    @Operation(summary = "Create a new song", description = "Add a new song to the library. A song matching an existing " +
+            "one's name, singer and album (ignoring case, accents and spacing) is rejected with 409 unless allowDuplicate is set")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createSong(@Valid @RequestBody Song song,
+                                        @RequestParam(defaultValue = "false") boolean allowDuplicate) {
+        try {
+            Song createdSong = songService.createSong(song, allowDuplicate);
+            return new ResponseEntity<>(createdSong, HttpStatus.CREATED);
+        } catch (DuplicateResourceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @PostMapping(value = "/import", consumes = { "text/csv", NDJSON })
+    @Operation(summary = "Bulk import songs", description = "Import songs from a CSV (with header row) or NDJSON body. " +
+            "Invalid rows are skipped and reported; one aggregated notification is sent for the whole import. " +
+            "Duplicates of existing songs (or of earlier rows) are rejected unless allowDuplicates is set, and counted either way")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Song> createSong(@Valid @RequestBody Song song) {
-        Song createdSong = songService.createSong(song);
-        return new ResponseEntity<>(createdSong, HttpStatus.CREATED);
+    public ResponseEntity<ImportReportDTO> importSongs(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       @RequestParam(defaultValue = "false") boolean allowDuplicates,
+                                                       InputStream body) throws IOException {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON));
+        SongImportService.Format format = ndjson ? SongImportService.Format.NDJSON : SongImportService.Format.CSV;
+        ImportReportDTO report = songImportService.importSongs(body, format, allowDuplicates);
+        return ResponseEntity.ok(report);
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Get songs by IDs", description = "Look up to 1000 songs by ID in one request. Returns the songs " +
+            "found in request order; unknown IDs, and hidden songs for non-admins, are omitted")
+    public ResponseEntity<?> getSongsByIds(@RequestBody List<Long> ids, Authentication authentication) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BATCH_IDS + " ids per request"));
+        }
+        List<SongDTO> songs = songService.getSongsByIds(ids, isAdmin(authentication));
+        return ResponseEntity.ok(songs);
     }
     
     @GetMapping("/{id}")
@@ -37,53 +115,158 @@ public class SongController {
     }
     
     @GetMapping
-    @Operation(summary = "Get all songs", description = "Retrieve all songs in the library (admin only)")
+    @Operation(summary = "Get all songs", description = "Retrieve all songs in the library (admin only). " +
+            "Pass limit (and after from the previous page) for cursor pagination sorted by id, releaseDate or name")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Song>> getAllSongs() {
-        List<Song> songs = songService.getAllSongs();
-        return ResponseEntity.ok(songs);
+    public ResponseEntity<?> getAllSongs(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after,
+                                         @RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String direction) {
+        if (limit == null && after == null) {
+            List<Song> songs = songService.getAllSongs();
+            return ResponseEntity.ok(songs);
+        }
+        return songPage(false, sort, direction, after, limit);
+    }
+    
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Export catalog", description = "Stream every song as newline-delimited JSON, optionally gzip-compressed (admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSongs(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip
+                    ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE)
+                    : new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+            songService.exportSongs(target);
+            if (target instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) target).finish();
+            }
+            target.flush();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"songs.ndjson" + (gzip ? ".gz" : "") + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
     
     @GetMapping("/visible")
-    @Operation(summary = "Get visible songs", description = "Retrieve all visible songs for users")
-    public ResponseEntity<List<Song>> getVisibleSongs() {
-        List<Song> songs = songService.getVisibleSongs();
-        return ResponseEntity.ok(songs);
+    @Operation(summary = "Get visible songs", description = "Retrieve all visible songs for users. " +
+            "Pass limit (and after from the previous page) for cursor pagination sorted by id, releaseDate or name")
+    public ResponseEntity<?> getVisibleSongs(@RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(defaultValue = "id") String sort,
+                                             @RequestParam(defaultValue = "asc") String direction,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (limit == null && after == null) {
+            return visibleSnapshot(ifNoneMatch, acceptEncoding);
+        }
+        return songPage(true, sort, direction, after, limit);
+    }
+    
+    @GetMapping("/visible/ids")
+    @PreAuthorize("hasAnyRole('SERVICE', 'ADMIN')")
+    @Operation(summary = "Get visible song IDs", description = "IDs of all visible songs plus the highest song ID at the " +
+            "time they were read, for building local existence filters. Requires a service or admin token")
+    public ResponseEntity<VisibleSongIdsDTO> getVisibleSongIds() {
+        return ResponseEntity.ok(songService.getVisibleSongIds());
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Song change feed", description = "Creates, updates, visibility changes and deletes after the " +
+            "since cursor, oldest first. Deletes are tombstones without a song, as are hidden songs for non-admins; " +
+            "poll again with nextSince")
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(defaultValue = "500") int limit,
+                                        Authentication authentication) {
+        if (since < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "since must not be negative"));
+        }
+        SongChangeFeedDTO feed = songChangeLogService.getChanges(since, Math.min(Math.max(limit, 1), MAX_CHANGES_PAGE),
+                isAdmin(authentication));
+        return ResponseEntity.ok(feed);
+    }
+    
+    @GetMapping("/releases")
+    @Operation(summary = "Get new releases", description = "Visible songs released between from and to (inclusive, ISO dates, " +
+            "either optional), newest first unless direction=asc. Pass nextCursor as after for the next page")
+    public ResponseEntity<?> getReleases(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(required = false) String after,
+                                         @RequestParam(defaultValue = "desc") String direction,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        try {
+            SongPageDTO page = browseService.getReleases(from, to, "asc".equalsIgnoreCase(direction), after,
+                    Math.max(1, Math.min(limit, MAX_RELEASES_PAGE)));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search songs", description = "Search songs by name, singer, music director, or album")
-    public ResponseEntity<List<Song>> searchSongs(@RequestParam String searchTerm) {
-        List<Song> songs = songService.searchSongs(searchTerm);
-        return ResponseEntity.ok(songs);
+    @Operation(summary = "Search songs", description = "Search songs by name, singer, music director, or album. " +
+            "Set fuzzy=1|2 for typo-tolerant matching; exact searches with no results fall back to fuzzy matching. " +
+            "Results are ranked by relevance and capped at limit. With facets=true, the response also carries " +
+            "singer, album, music director and release year counts over all matches")
+    public ResponseEntity<?> searchSongs(@RequestParam String searchTerm,
+                                         @RequestParam(required = false) Integer fuzzy,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(defaultValue = "false") boolean facets,
+                                         @RequestParam(defaultValue = "10") int facetLimit) {
+        SearchResultDTO result = songService.searchSongs(searchTerm, fuzzy, limit, facets ? facetLimit : 0);
+        return searchResponse(result, facets);
+    }
+    
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest completions", description = "Top song names, singers, albums and music directors starting with the prefix")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        List<SuggestionDTO> suggestions = songService.suggest(prefix, Math.min(Math.max(limit, 1), 50));
+        return ResponseEntity.ok(suggestions);
     }
     
     @GetMapping("/search/name")
     @Operation(summary = "Search songs by name", description = "Search songs by song name")
-    public ResponseEntity<List<Song>> searchSongsByName(@RequestParam String name) {
-        List<Song> songs = songService.searchSongsByName(name);
-        return ResponseEntity.ok(songs);
+    public ResponseEntity<?> searchSongsByName(@RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "10") int facetLimit) {
+        SearchResultDTO result = songService.searchSongsByName(name, limit, facets ? facetLimit : 0);
+        return searchResponse(result, facets);
     }
     
     @GetMapping("/search/singer")
     @Operation(summary = "Search songs by singer", description = "Search songs by singer name")
-    public ResponseEntity<List<Song>> searchSongsBySinger(@RequestParam String singer) {
-        List<Song> songs = songService.searchSongsBySinger(singer);
-        return ResponseEntity.ok(songs);
+    public ResponseEntity<?> searchSongsBySinger(@RequestParam String singer,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "10") int facetLimit) {
+        SearchResultDTO result = songService.searchSongsBySinger(singer, limit, facets ? facetLimit : 0);
+        return searchResponse(result, facets);
     }
     
     @GetMapping("/search/music-director")
     @Operation(summary = "Search songs by music director", description = "Search songs by music director name")
-    public ResponseEntity<List<Song>> searchSongsByMusicDirector(@RequestParam String musicDirector) {
-        List<Song> songs = songService.searchSongsByMusicDirector(musicDirector);
-        return ResponseEntity.ok(songs);
+    public ResponseEntity<?> searchSongsByMusicDirector(@RequestParam String musicDirector,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "10") int facetLimit) {
+        SearchResultDTO result = songService.searchSongsByMusicDirector(musicDirector, limit, facets ? facetLimit : 0);
+        return searchResponse(result, facets);
     }
     
     @GetMapping("/search/album")
     @Operation(summary = "Search songs by album", description = "Search songs by album name")
-    public ResponseEntity<List<Song>> searchSongsByAlbum(@RequestParam String albumName) {
-        List<Song> songs = songService.searchSongsByAlbum(albumName);
-        return ResponseEntity.ok(songs);
+    public ResponseEntity<?> searchSongsByAlbum(@RequestParam String albumName,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "10") int facetLimit) {
+        SearchResultDTO result = songService.searchSongsByAlbum(albumName, limit, facets ? facetLimit : 0);
+        return searchResponse(result, facets);
     }
     
     @PutMapping("/{id}")
@@ -102,6 +285,19 @@ public class SongController {
         return ResponseEntity.ok(song);
     }
     
+    @PatchMapping("/bulk")
+    @Operation(summary = "Bulk update songs", description = "Apply one patch (e.g. isVisible or albumName) to every song " +
+            "in ids (at most 1000), or to every song matching filter, with a single UPDATE. Returns the number of songs updated")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdateSongs(@RequestBody SongBulkUpdateDTO request) {
+        try {
+            int updated = songService.bulkUpdate(request);
+            return ResponseEntity.ok(new BulkUpdateResultDTO(updated));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete song", description = "Delete song by song ID")
     @PreAuthorize("hasRole('ADMIN')")
@@ -109,4 +305,104 @@ public class SongController {
         songService.deleteSong(id);
         return ResponseEntity.noContent().build();
     }
+    
+    private ResponseEntity<?> songPage(boolean visibleOnly, String sort, String direction, String after, Integer limit) {
+        try {
+            SongPageDTO page = songService.getSongPage(visibleOnly, sort, direction, after,
+                    limit == null ? DEFAULT_PAGE_SIZE : limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Full visible list from the pre-serialized snapshot; clients revalidate with If-None-Match and get a 304 when unchanged
+    private ResponseEntity<byte[]> visibleSnapshot(String ifNoneMatch, String acceptEncoding) {
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.visibleSongs();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+    
+    // Gzip when Accept-Encoding gives it (or *) a non-zero q-value and does not prefer identity over it
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        double identity = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String[] param = parts[i].split("=", 2);
+                if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+                    q = qValue(param[1].trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                wildcard = q;
+            } else if (coding.equals("identity")) {
+                identity = q;
+            }
+        }
+        double q = gzip >= 0 ? gzip : wildcard;
+        return q > 0 && q >= identity;
+    }
+    
+    // A malformed or out-of-range q-value counts as 0, i.e. not acceptable
+    private static double qValue(String value) {
+        try {
+            double q = Double.parseDouble(value);
+            return q >= 0 && q <= 1 ? q : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Plain song list unless facets were asked for, so existing clients see the same shape as before
+    private ResponseEntity<?> searchResponse(SearchResultDTO result, boolean facets) {
+        if (facets) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.ok(result.getSongs());
+    }
+    
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
 }
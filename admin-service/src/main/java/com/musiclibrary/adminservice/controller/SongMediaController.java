@@ -0,0 +1,277 @@
+package com.musiclibrary.adminservice.controller;
+
+import com.musiclibrary.adminservice.dto.SegmentManifestDTO;
+import com.musiclibrary.adminservice.dto.UploadStatusDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.exception.SongNotFoundException;
+import com.musiclibrary.adminservice.exception.UploadOffsetMismatchException;
+import com.musiclibrary.adminservice.service.MediaStreamService;
+import com.musiclibrary.adminservice.service.SegmentService;
+import com.musiclibrary.adminservice.service.SongService;
+import com.musiclibrary.adminservice.service.SongUploadService;
+import com.musiclibrary.adminservice.service.WaveformService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/songs")
+@Tag(name = "Song Media", description = "APIs for song audio")
+public class SongMediaController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String CHUNK_CRC32C = "X-Chunk-CRC32C";
+
+    @Autowired
+    private SongService songService;
+
+    @Autowired
+    private MediaStreamService mediaStreamService;
+
+    @Autowired
+    private SongUploadService songUploadService;
+
+    @Autowired
+    private WaveformService waveformService;
+
+    @Autowired
+    private SegmentService segmentService;
+
+    @GetMapping("/{id}/stream")
+    @Operation(summary = "Stream song audio", description = "Serve the song's audio file. Supports single byte ranges " +
+            "(Range / If-Range) with 206 Partial Content, so players can seek without downloading the whole file")
+    public ResponseEntity<StreamingResponseBody> streamSong(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            Authentication authentication) throws IOException {
+        Song song = findPlayableSong(id, authentication);
+        Path file = song == null ? null : mediaStreamService.resolve(song);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(etag);
+        headers.setLastModified(lastModified);
+
+        List<HttpRange> ranges;
+        try {
+            ranges = range == null ? List.of() : HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            ranges = List.of();
+        }
+        // Multiple ranges would need multipart/byteranges; serving the whole file is also valid
+        if (ranges.size() != 1 || !rangeStillValid(ifRange, etag, lastModified)) {
+            headers.setContentLength(length);
+            return new ResponseEntity<>(out -> mediaStreamService.transfer(file, 0, length, out), headers, HttpStatus.OK);
+        }
+
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        long count = end - start + 1;
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        headers.setContentLength(count);
+        return new ResponseEntity<>(out -> mediaStreamService.transfer(file, start, count, out), headers,
+                HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @GetMapping("/{id}/waveform")
+    @Operation(summary = "Get waveform peaks", description = "Precomputed peaks of the song's audio as binary: one signed " +
+            "byte min and one max per bin, resolution bins in total. Returns 202 while they are being computed. " +
+            "Pass the song's contentHash as hash to get a response that can be cached indefinitely")
+    public ResponseEntity<byte[]> getWaveform(@PathVariable Long id,
+            @RequestParam(defaultValue = "1024") int resolution,
+            @RequestParam(required = false) String hash,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) throws IOException {
+        if (!waveformService.isSupportedResolution(resolution)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Song song = findPlayableSong(id, authentication);
+        if (song == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Path peaks = waveformService.find(song, resolution);
+        if (peaks == null) {
+            if (waveformService.submit(song)) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).header(HttpHeaders.RETRY_AFTER, "5").build();
+            }
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + peaks.getFileName().toString().replace(".peaks", "") + "-"
+                + Long.toHexString(Files.getLastModifiedTime(peaks).toMillis()) + "\"";
+        // Content-hash keyed peaks never change, so a URL naming the hash can be cached forever
+        CacheControl cacheControl = song.getContentHash() != null && song.getContentHash().equals(hash)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.maxAge(1, TimeUnit.HOURS);
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(Files.readAllBytes(peaks));
+    }
+
+    @GetMapping("/{id}/segments")
+    @Operation(summary = "Get segment manifest", description = "Byte ranges that split the song's audio into segments of " +
+            "roughly fixed duration, for fetching with /segments/{index}")
+    public ResponseEntity<SegmentManifestDTO> getSegmentManifest(@PathVariable Long id,
+                                                                 Authentication authentication) throws IOException {
+        Song song = findPlayableSong(id, authentication);
+        SegmentManifestDTO manifest = song == null ? null : segmentService.manifest(song);
+        if (manifest == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(manifest);
+    }
+
+    @GetMapping("/{id}/segments/{index}")
+    @Operation(summary = "Get audio segment", description = "One segment of the song's audio as listed in the manifest, " +
+            "served from the in-memory segment cache when possible")
+    public ResponseEntity<StreamingResponseBody> getSegment(@PathVariable Long id, @PathVariable int index,
+                                                            Authentication authentication) throws IOException {
+        Song song = findPlayableSong(id, authentication);
+        ByteBuffer segment = song == null ? null : segmentService.segment(song, index);
+        if (segment == null) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaType contentType = MediaTypeFactory.getMediaType(song.getFilePath())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .contentLength(segment.remaining())
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS))
+                .body(out -> {
+                    WritableByteChannel channel = Channels.newChannel(out);
+                    while (segment.hasRemaining()) {
+                        channel.write(segment);
+                    }
+                });
+    }
+
+    @PostMapping("/{id}/segments/prefetch")
+    @Operation(summary = "Prefetch first segment", description = "Warm the segment cache with the song's first segment, " +
+            "e.g. for the next track of a playlist. Returns 202 immediately")
+    public ResponseEntity<Void> prefetchSegments(@PathVariable Long id, Authentication authentication) {
+        Song song = findPlayableSong(id, authentication);
+        if (song == null) {
+            return ResponseEntity.notFound().build();
+        }
+        segmentService.prefetch(song);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping(value = "/{id}/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload a chunk of song audio", description = "Append the request body at offset to the " +
+            "song's resumable upload of total bytes. X-Chunk-CRC32C must carry the chunk's CRC32C in hex. A wrong " +
+            "offset returns 409 with the expected offset in Upload-Offset; the final chunk attaches the file to the song")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> uploadChunk(@PathVariable Long id,
+                                         @RequestParam long offset,
+                                         @RequestParam long total,
+                                         @RequestParam String filename,
+                                         @RequestHeader(CHUNK_CRC32C) String crc32c,
+                                         InputStream body) throws IOException {
+        try {
+            UploadStatusDTO status = songUploadService.receiveChunk(id, offset, total, filename,
+                    Long.parseLong(crc32c.trim(), 16), body);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(status.getOffset()))
+                    .body(status);
+        } catch (SongNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (UploadOffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(UPLOAD_OFFSET, String.valueOf(e.getExpectedOffset()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/upload")
+    @Operation(summary = "Get upload progress", description = "Bytes received so far for the song's upload of total bytes; resume from this offset")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UploadStatusDTO> getUploadStatus(@PathVariable Long id, @RequestParam long total) throws IOException {
+        try {
+            UploadStatusDTO status = songUploadService.getStatus(id, total);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(status.getOffset()))
+                    .body(status);
+        } catch (SongNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Hidden songs can only be played by admins
+    private Song findPlayableSong(Long id, Authentication authentication) {
+        Song song;
+        try {
+            song = songService.getSongById(id);
+        } catch (SongNotFoundException e) {
+            return null;
+        }
+        boolean admin = authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        return Boolean.TRUE.equals(song.getIsVisible()) || admin ? song : null;
+    }
+
+    // If-Range holds either an entity tag (strong comparison) or an HTTP date that must match exactly
+    private static boolean rangeStillValid(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(etag);
+        }
+        try {
+            long since = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return since == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
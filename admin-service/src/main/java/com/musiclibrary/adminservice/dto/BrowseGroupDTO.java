@@ -0,0 +1,32 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.time.LocalDate;
+
+// One album or artist in a browse listing
+public class BrowseGroupDTO {
+    
+    private String name;
+    
+    private int songCount;
+    
+    private LocalDate earliestReleaseDate;
+    
+    // Constructors
+    public BrowseGroupDTO() {}
+    
+    public BrowseGroupDTO(String name, int songCount, LocalDate earliestReleaseDate) {
+        this.name = name;
+        this.songCount = songCount;
+        this.earliestReleaseDate = earliestReleaseDate;
+    }
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public int getSongCount() { return songCount; }
+    public void setSongCount(int songCount) { this.songCount = songCount; }
+    
+    public LocalDate getEarliestReleaseDate() { return earliestReleaseDate; }
+    public void setEarliestReleaseDate(LocalDate earliestReleaseDate) { this.earliestReleaseDate = earliestReleaseDate; }
+}
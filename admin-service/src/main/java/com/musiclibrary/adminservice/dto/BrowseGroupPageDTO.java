@@ -0,0 +1,32 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.util.List;
+
+public class BrowseGroupPageDTO {
+    
+    private List<BrowseGroupDTO> groups;
+    
+    // Name of the last group, to pass as "after" for the next page; null on the last page
+    private String nextCursor;
+    
+    private boolean hasMore;
+    
+    // Constructors
+    public BrowseGroupPageDTO() {}
+    
+    public BrowseGroupPageDTO(List<BrowseGroupDTO> groups, String nextCursor, boolean hasMore) {
+        this.groups = groups;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<BrowseGroupDTO> getGroups() { return groups; }
+    public void setGroups(List<BrowseGroupDTO> groups) { this.groups = groups; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,17 @@
+package com.musiclibrary.adminservice.dto;
+
+public class BulkUpdateResultDTO {
+    
+    private int updated;
+    
+    // Constructors
+    public BulkUpdateResultDTO() {}
+    
+    public BulkUpdateResultDTO(int updated) {
+        this.updated = updated;
+    }
+    
+    // Getters and Setters
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+}
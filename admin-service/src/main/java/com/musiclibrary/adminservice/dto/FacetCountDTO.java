@@ -0,0 +1,23 @@
+package com.musiclibrary.adminservice.dto;
+
+public class FacetCountDTO {
+    
+    private String value;
+    
+    private int count;
+    
+    // Constructors
+    public FacetCountDTO() {}
+    
+    public FacetCountDTO(String value, int count) {
+        this.value = value;
+        this.count = count;
+    }
+    
+    // Getters and Setters
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+    
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
@@ -0,0 +1,24 @@
+package com.musiclibrary.adminservice.dto;
+
+public class ImportErrorDTO {
+    
+    // 1-based data row number (header excluded for CSV)
+    private long row;
+    
+    private String message;
+    
+    // Constructors
+    public ImportErrorDTO() {}
+    
+    public ImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public long getRow() { return row; }
+    public void setRow(long row) { this.row = row; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
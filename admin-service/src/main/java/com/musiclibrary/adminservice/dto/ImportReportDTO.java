@@ -0,0 +1,43 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReportDTO {
+    
+    private long totalRows;
+    
+    private long imported;
+    
+    private long failed;
+    
+    // Rows matching an existing or earlier song; rejected unless duplicates were allowed
+    private long duplicates;
+    
+    // Per-row errors, capped so a badly formatted file cannot blow up the response
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+    
+    private boolean errorsTruncated;
+    
+    // Constructors
+    public ImportReportDTO() {}
+    
+    // Getters and Setters
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+    
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    
+    public long getDuplicates() { return duplicates; }
+    public void setDuplicates(long duplicates) { this.duplicates = duplicates; }
+    
+    public List<ImportErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<ImportErrorDTO> errors) { this.errors = errors; }
+    
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
@@ -0,0 +1,35 @@
+package com.musiclibrary.adminservice.dto;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchResultDTO {
+    
+    private List<Song> songs;
+    
+    private int totalMatches;
+    
+    // Facet key (singer, albumName, musicDirector, releaseYear) to its most frequent values
+    private Map<String, List<FacetCountDTO>> facets;
+    
+    // Constructors
+    public SearchResultDTO() {}
+    
+    public SearchResultDTO(List<Song> songs, int totalMatches, Map<String, List<FacetCountDTO>> facets) {
+        this.songs = songs;
+        this.totalMatches = totalMatches;
+        this.facets = facets;
+    }
+    
+    // Getters and Setters
+    public List<Song> getSongs() { return songs; }
+    public void setSongs(List<Song> songs) { this.songs = songs; }
+    
+    public int getTotalMatches() { return totalMatches; }
+    public void setTotalMatches(int totalMatches) { this.totalMatches = totalMatches; }
+    
+    public Map<String, List<FacetCountDTO>> getFacets() { return facets; }
+    public void setFacets(Map<String, List<FacetCountDTO>> facets) { this.facets = facets; }
+}
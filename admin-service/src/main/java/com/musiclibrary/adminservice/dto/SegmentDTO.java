@@ -0,0 +1,39 @@
+package com.musiclibrary.adminservice.dto;
+
+public class SegmentDTO {
+    
+    private int index;
+    private long offset;
+    private long length;
+    
+    // Estimated from the average bitrate; null when the song has not been probed
+    private Double startSeconds;
+    private Double durationSeconds;
+    
+    // Constructors
+    public SegmentDTO() {}
+    
+    public SegmentDTO(int index, long offset, long length, Double startSeconds, Double durationSeconds) {
+        this.index = index;
+        this.offset = offset;
+        this.length = length;
+        this.startSeconds = startSeconds;
+        this.durationSeconds = durationSeconds;
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+    
+    public long getLength() { return length; }
+    public void setLength(long length) { this.length = length; }
+    
+    public Double getStartSeconds() { return startSeconds; }
+    public void setStartSeconds(Double startSeconds) { this.startSeconds = startSeconds; }
+    
+    public Double getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(Double durationSeconds) { this.durationSeconds = durationSeconds; }
+}
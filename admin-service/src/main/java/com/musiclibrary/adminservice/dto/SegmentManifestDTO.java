@@ -0,0 +1,40 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.util.List;
+
+public class SegmentManifestDTO {
+    
+    private Long songId;
+    private String contentType;
+    private long totalBytes;
+    private Double durationSeconds;
+    private List<SegmentDTO> segments;
+    
+    // Constructors
+    public SegmentManifestDTO() {}
+    
+    public SegmentManifestDTO(Long songId, String contentType, long totalBytes, Double durationSeconds,
+                              List<SegmentDTO> segments) {
+        this.songId = songId;
+        this.contentType = contentType;
+        this.totalBytes = totalBytes;
+        this.durationSeconds = durationSeconds;
+        this.segments = segments;
+    }
+    
+    // Getters and Setters
+    public Long getSongId() { return songId; }
+    public void setSongId(Long songId) { this.songId = songId; }
+    
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    
+    public long getTotalBytes() { return totalBytes; }
+    public void setTotalBytes(long totalBytes) { this.totalBytes = totalBytes; }
+    
+    public Double getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(Double durationSeconds) { this.durationSeconds = durationSeconds; }
+    
+    public List<SegmentDTO> getSegments() { return segments; }
+    public void setSegments(List<SegmentDTO> segments) { this.segments = segments; }
+}
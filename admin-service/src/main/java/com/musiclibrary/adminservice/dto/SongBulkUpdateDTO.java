@@ -0,0 +1,26 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.util.List;
+
+public class SongBulkUpdateDTO {
+    
+    // Either ids or filter selects the songs, not both
+    private List<Long> ids;
+    
+    private SongFilterDTO filter;
+    
+    private SongPatchDTO patch;
+    
+    // Constructors
+    public SongBulkUpdateDTO() {}
+    
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    
+    public SongFilterDTO getFilter() { return filter; }
+    public void setFilter(SongFilterDTO filter) { this.filter = filter; }
+    
+    public SongPatchDTO getPatch() { return patch; }
+    public void setPatch(SongPatchDTO patch) { this.patch = patch; }
+}
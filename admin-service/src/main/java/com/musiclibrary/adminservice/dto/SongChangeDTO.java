@@ -0,0 +1,44 @@
+package com.musiclibrary.adminservice.dto;
+
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.entity.SongChangeType;
+
+import java.time.LocalDateTime;
+
+public class SongChangeDTO {
+    
+    private Long sequence;
+    private Long songId;
+    private SongChangeType type;
+    private LocalDateTime changedAt;
+    
+    // Current state of the song; null for deletes (tombstones), for songs deleted since and, for non-admins, hidden songs
+    private Song song;
+    
+    // Constructors
+    public SongChangeDTO() {}
+    
+    public SongChangeDTO(Long sequence, Long songId, SongChangeType type, LocalDateTime changedAt, Song song) {
+        this.sequence = sequence;
+        this.songId = songId;
+        this.type = type;
+        this.changedAt = changedAt;
+        this.song = song;
+    }
+    
+    // Getters and Setters
+    public Long getSequence() { return sequence; }
+    public void setSequence(Long sequence) { this.sequence = sequence; }
+    
+    public Long getSongId() { return songId; }
+    public void setSongId(Long songId) { this.songId = songId; }
+    
+    public SongChangeType getType() { return type; }
+    public void setType(SongChangeType type) { this.type = type; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+    
+    public Song getSong() { return song; }
+    public void setSong(Song song) { this.song = song; }
+}
@@ -0,0 +1,32 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.util.List;
+
+public class SongChangeFeedDTO {
+    
+    private List<SongChangeDTO> changes;
+    
+    // Cursor to pass as "since" on the next poll; unchanged when there is nothing new
+    private long nextSince;
+    
+    private boolean hasMore;
+    
+    // Constructors
+    public SongChangeFeedDTO() {}
+    
+    public SongChangeFeedDTO(List<SongChangeDTO> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<SongChangeDTO> getChanges() { return changes; }
+    public void setChanges(List<SongChangeDTO> changes) { this.changes = changes; }
+    
+    public long getNextSince() { return nextSince; }
+    public void setNextSince(long nextSince) { this.nextSince = nextSince; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -28,6 +28,9 @@ public class SongDTO {
     @Min(value = 1, message = "Duration must be at least 1 minute")
     private Integer durationMinutes;
     
+    // Probed from the audio file; ignored on create and update
+    private Double durationSeconds;
+    
     private String filePath;
     
     private Boolean isVisible;
@@ -69,6 +72,9 @@ public class SongDTO {
     public Integer getDurationMinutes() { return durationMinutes; }
     public void setDurationMinutes(Integer durationMinutes) { this.durationMinutes = durationMinutes; }
     
+    public Double getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(Double durationSeconds) { this.durationSeconds = durationSeconds; }
+    
     public String getFilePath() { return filePath; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
     
@@ -0,0 +1,29 @@
+package com.musiclibrary.adminservice.dto;
+
+// Exact-match criteria for bulk operations; unset fields match everything
+public class SongFilterDTO {
+    
+    private String albumName;
+    
+    private String singer;
+    
+    private String musicDirector;
+    
+    private Boolean isVisible;
+    
+    // Constructors
+    public SongFilterDTO() {}
+    
+    // Getters and Setters
+    public String getAlbumName() { return albumName; }
+    public void setAlbumName(String albumName) { this.albumName = albumName; }
+    
+    public String getSinger() { return singer; }
+    public void setSinger(String singer) { this.singer = singer; }
+    
+    public String getMusicDirector() { return musicDirector; }
+    public void setMusicDirector(String musicDirector) { this.musicDirector = musicDirector; }
+    
+    public Boolean getIsVisible() { return isVisible; }
+    public void setIsVisible(Boolean isVisible) { this.isVisible = isVisible; }
+}
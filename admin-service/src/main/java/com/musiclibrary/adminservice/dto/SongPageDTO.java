@@ -0,0 +1,34 @@
+package com.musiclibrary.adminservice.dto;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+import java.util.List;
+
+public class SongPageDTO {
+    
+    private List<Song> songs;
+    
+    // Opaque cursor to pass as "after" for the next page; null on the last page
+    private String nextCursor;
+    
+    private boolean hasMore;
+    
+    // Constructors
+    public SongPageDTO() {}
+    
+    public SongPageDTO(List<Song> songs, String nextCursor, boolean hasMore) {
+        this.songs = songs;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<Song> getSongs() { return songs; }
+    public void setSongs(List<Song> songs) { this.songs = songs; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,36 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.time.LocalDate;
+
+// Fields to set on every matched song; unset fields are left alone
+public class SongPatchDTO {
+    
+    private Boolean isVisible;
+    
+    private String albumName;
+    
+    private String singer;
+    
+    private String musicDirector;
+    
+    private LocalDate releaseDate;
+    
+    // Constructors
+    public SongPatchDTO() {}
+    
+    // Getters and Setters
+    public Boolean getIsVisible() { return isVisible; }
+    public void setIsVisible(Boolean isVisible) { this.isVisible = isVisible; }
+    
+    public String getAlbumName() { return albumName; }
+    public void setAlbumName(String albumName) { this.albumName = albumName; }
+    
+    public String getSinger() { return singer; }
+    public void setSinger(String singer) { this.singer = singer; }
+    
+    public String getMusicDirector() { return musicDirector; }
+    public void setMusicDirector(String musicDirector) { this.musicDirector = musicDirector; }
+    
+    public LocalDate getReleaseDate() { return releaseDate; }
+    public void setReleaseDate(LocalDate releaseDate) { this.releaseDate = releaseDate; }
+}
@@ -0,0 +1,23 @@
+package com.musiclibrary.adminservice.dto;
+
+public class SuggestionDTO {
+    
+    private String text;
+    
+    private int weight;
+    
+    // Constructors
+    public SuggestionDTO() {}
+    
+    public SuggestionDTO(String text, int weight) {
+        this.text = text;
+        this.weight = weight;
+    }
+    
+    // Getters and Setters
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    
+    public int getWeight() { return weight; }
+    public void setWeight(int weight) { this.weight = weight; }
+}
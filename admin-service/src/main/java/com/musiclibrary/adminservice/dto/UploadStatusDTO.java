@@ -0,0 +1,43 @@
+package com.musiclibrary.adminservice.dto;
+
+public class UploadStatusDTO {
+    
+    private Long songId;
+    
+    // Bytes received so far; the offset the next chunk must start at
+    private long offset;
+    
+    private long total;
+    
+    private boolean complete;
+    
+    // Set once the upload is complete
+    private String filePath;
+    
+    // Constructors
+    public UploadStatusDTO() {}
+    
+    public UploadStatusDTO(Long songId, long offset, long total, boolean complete, String filePath) {
+        this.songId = songId;
+        this.offset = offset;
+        this.total = total;
+        this.complete = complete;
+        this.filePath = filePath;
+    }
+    
+    // Getters and Setters
+    public Long getSongId() { return songId; }
+    public void setSongId(Long songId) { this.songId = songId; }
+    
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+    
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+}
@@ -0,0 +1,26 @@
+package com.musiclibrary.adminservice.dto;
+
+import java.util.List;
+
+public class VisibleSongIdsDTO {
+    
+    // Highest song id (visible or not) when the ids were read; larger ids are newer than this list
+    private long maxId;
+    
+    private List<Long> ids;
+    
+    // Constructors
+    public VisibleSongIdsDTO() {}
+    
+    public VisibleSongIdsDTO(long maxId, List<Long> ids) {
+        this.maxId = maxId;
+        this.ids = ids;
+    }
+    
+    // Getters and Setters
+    public long getMaxId() { return maxId; }
+    public void setMaxId(long maxId) { this.maxId = maxId; }
+    
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
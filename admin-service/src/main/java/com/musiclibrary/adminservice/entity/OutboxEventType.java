@@ -0,0 +1,6 @@
+package com.musiclibrary.adminservice.entity;
+
+public enum OutboxEventType {
+    NEW_SONG,
+    NEW_SONGS_DIGEST
+}
@@ -0,0 +1,6 @@
+package com.musiclibrary.adminservice.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -1,28 +1,43 @@
 package com.musiclibrary.adminservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "songs")
+@Table(name = "songs", indexes = {
+        @Index(name = "idx_songs_release_date_id", columnList = "release_date, id"),
+        @Index(name = "idx_songs_name_id", columnList = "name, id"),
+        @Index(name = "idx_songs_visible_id", columnList = "is_visible, id"),
+        @Index(name = "idx_songs_visible_release_date_id", columnList = "is_visible, release_date, id"),
+        @Index(name = "idx_songs_visible_name_id", columnList = "is_visible, name, id"),
+        @Index(name = "idx_songs_content_hash", columnList = "content_hash")
+})
 public class Song {
     
+    // Pooled sequence rather than IDENTITY so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "song_seq")
+    @SequenceGenerator(name = "song_seq", sequenceName = "songs_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Song name is required")
+    @Size(max = 255, message = "Song name must be at most 255 characters")
     @Column(nullable = false)
     private String name;
     
     @NotBlank(message = "Singer is required")
+    @Size(max = 255, message = "Singer must be at most 255 characters")
     @Column(nullable = false)
     private String singer;
     
     @NotBlank(message = "Music director is required")
+    @Size(max = 255, message = "Music director must be at most 255 characters")
     @Column(nullable = false)
     private String musicDirector;
     
@@ -31,15 +46,40 @@ public class Song {
     private LocalDate releaseDate;
     
     @NotBlank(message = "Album name is required")
+    @Size(max = 255, message = "Album name must be at most 255 characters")
     @Column(nullable = false)
     private String albumName;
     
     @Column(name = "duration_minutes")
     private Integer durationMinutes;
     
+    @Size(max = 255, message = "File path must be at most 255 characters")
     @Column(name = "file_path")
     private String filePath;
     
+    // SHA-256 of the audio blob filePath points at; null for files not in the blob store
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    // Read from the audio file headers by MediaProbeService; clients cannot set them
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "duration_seconds")
+    private Double durationSeconds;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "bitrate")
+    private Integer bitrate;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "sample_rate")
+    private Integer sampleRate;
+    
+    // filePath as of the last probe; differs from filePath while a probe is outstanding
+    @JsonIgnore
+    @Column(name = "probed_file_path")
+    private String probedFilePath;
+    
     @Column(name = "is_visible")
     private Boolean isVisible = true;
     
@@ -136,6 +176,46 @@ public class Song {
         this.filePath = filePath;
     }
     
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    public Double getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public void setDurationSeconds(Double durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+    
+    public Integer getBitrate() {
+        return bitrate;
+    }
+    
+    public void setBitrate(Integer bitrate) {
+        this.bitrate = bitrate;
+    }
+    
+    public Integer getSampleRate() {
+        return sampleRate;
+    }
+    
+    public void setSampleRate(Integer sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+    
+    public String getProbedFilePath() {
+        return probedFilePath;
+    }
+    
+    public void setProbedFilePath(String probedFilePath) {
+        this.probedFilePath = probedFilePath;
+    }
+    
     public Boolean getIsVisible() {
         return isVisible;
     }
@@ -0,0 +1,74 @@
+package com.musiclibrary.adminservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only change log entry for a song, written in the same transaction as the change.
+ * The id doubles as the change feed cursor.
+ */
+@Entity
+@Table(name = "song_changes")
+public class SongChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "song_change_seq")
+    @SequenceGenerator(name = "song_change_seq", sequenceName = "song_changes_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "song_id", nullable = false)
+    private Long songId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private SongChangeType changeType;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        changedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public SongChange() {}
+    
+    public SongChange(Long songId, SongChangeType changeType) {
+        this.songId = songId;
+        this.changeType = changeType;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getSongId() {
+        return songId;
+    }
+    
+    public void setSongId(Long songId) {
+        this.songId = songId;
+    }
+    
+    public SongChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public void setChangeType(SongChangeType changeType) {
+        this.changeType = changeType;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
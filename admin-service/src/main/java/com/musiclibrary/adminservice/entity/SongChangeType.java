@@ -0,0 +1,8 @@
+package com.musiclibrary.adminservice.entity;
+
+public enum SongChangeType {
+    CREATED,
+    UPDATED,
+    VISIBILITY_CHANGED,
+    DELETED
+}
@@ -0,0 +1,15 @@
+package com.musiclibrary.adminservice.exception;
+
+public class UploadOffsetMismatchException extends RuntimeException {
+    
+    private final long expectedOffset;
+    
+    public UploadOffsetMismatchException(String message, long expectedOffset) {
+        super(message);
+        this.expectedOffset = expectedOffset;
+    }
+    
+    public long getExpectedOffset() {
+        return expectedOffset;
+    }
+}
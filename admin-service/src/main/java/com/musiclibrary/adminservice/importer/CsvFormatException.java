@@ -0,0 +1,13 @@
+package com.musiclibrary.adminservice.importer;
+
+import java.io.IOException;
+
+/**
+ * Input that is not well-formed CSV, as opposed to a failure reading it
+ */
+public class CsvFormatException extends IOException {
+
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
@@ -13,6 +13,7 @@ public class SongMapper {
         dto.setReleaseDate(song.getReleaseDate());
         dto.setAlbumName(song.getAlbumName());
         dto.setDurationMinutes(song.getDurationMinutes());
+        dto.setDurationSeconds(song.getDurationSeconds());
         dto.setIsVisible(song.getIsVisible());
         return dto;
     }
@@ -0,0 +1,19 @@
+package com.musiclibrary.adminservice.media;
+
+public class AudioInfo {
+
+    private final double durationSeconds;
+    // Bits per second; the average for variable bitrate files
+    private final int bitrate;
+    private final int sampleRate;
+
+    public AudioInfo(double durationSeconds, int bitrate, int sampleRate) {
+        this.durationSeconds = durationSeconds;
+        this.bitrate = bitrate;
+        this.sampleRate = sampleRate;
+    }
+
+    public double getDurationSeconds() { return durationSeconds; }
+    public int getBitrate() { return bitrate; }
+    public int getSampleRate() { return sampleRate; }
+}
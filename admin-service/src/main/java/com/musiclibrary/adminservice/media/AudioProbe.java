@@ -0,0 +1,228 @@
+package com.musiclibrary.adminservice.media;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads duration, bitrate and sample rate from WAV, MP3 and FLAC headers. Only header bytes
+ * are read: WAV chunk headers, FLAC STREAMINFO, and for MP3 the first frame plus its
+ * Xing/Info or VBRI header when present (constant bitrate is assumed otherwise).
+ */
+public final class AudioProbe {
+
+    private static final int MP3_SYNC_SCAN = 64 * 1024;
+
+    // Bitrates in kbps by [MPEG-1 ? 0 : 1][layer - 1][index]
+    private static final int[][][] MP3_BITRATES = {
+            {
+                    {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+                    {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}
+            },
+            {
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+            }
+    };
+
+    private static final int[] MP3_SAMPLE_RATES = {44100, 48000, 32000};
+
+    private AudioProbe() {}
+
+    /**
+     * Header information for the file, or null when the format is not recognized.
+     */
+    public static AudioInfo probe(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = read(channel, 0, 12);
+            if (head.remaining() < 4) {
+                return null;
+            }
+            if (matches(head, 0, "RIFF") && head.remaining() >= 12 && matches(head, 8, "WAVE")) {
+                return probeWav(channel);
+            }
+            if (matches(head, 0, "fLaC")) {
+                return probeFlac(channel);
+            }
+            return probeMp3(channel);
+        }
+    }
+
+    private static AudioInfo probeWav(FileChannel channel) throws IOException {
+        long position = 12;
+        int sampleRate = 0;
+        int byteRate = 0;
+        while (position + 8 <= channel.size()) {
+            ByteBuffer header = read(channel, position, 8).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.remaining() < 8) {
+                return null;
+            }
+            String id = new String(header.array(), 0, 4, StandardCharsets.US_ASCII);
+            long size = header.getInt(4) & 0xFFFFFFFFL;
+            long body = position + 8;
+            if (id.equals("fmt ")) {
+                ByteBuffer fmt = read(channel, body, 16).order(ByteOrder.LITTLE_ENDIAN);
+                if (fmt.remaining() < 16) {
+                    return null;
+                }
+                sampleRate = fmt.getInt(4);
+                byteRate = fmt.getInt(8);
+            } else if (id.equals("data")) {
+                if (byteRate <= 0) {
+                    return null;
+                }
+                // Streamed WAVs leave the size unset; the data then runs to the end of the file
+                long dataSize = size == 0xFFFFFFFFL || body + size > channel.size() ? channel.size() - body : size;
+                return new AudioInfo((double) dataSize / byteRate, byteRate * 8, sampleRate);
+            }
+            // Chunks are padded to an even length
+            position = body + size + (size & 1);
+        }
+        return null;
+    }
+
+    private static AudioInfo probeFlac(FileChannel channel) throws IOException {
+        // The first metadata block is always STREAMINFO
+        ByteBuffer block = read(channel, 4, 4 + 34);
+        if (block.remaining() < 38 || (block.get(0) & 0x7F) != 0) {
+            return null;
+        }
+        long packed = block.getLong(4 + 10);
+        int sampleRate = (int) (packed >>> 44);
+        long totalSamples = packed & 0xFFFFFFFFFL;
+        if (sampleRate <= 0 || totalSamples <= 0) {
+            return null;
+        }
+        double duration = (double) totalSamples / sampleRate;
+        return new AudioInfo(duration, (int) Math.round(channel.size() * 8 / duration), sampleRate);
+    }
+
+    private static AudioInfo probeMp3(FileChannel channel) throws IOException {
+        long start = 0;
+        ByteBuffer id3 = read(channel, 0, 10);
+        if (id3.remaining() == 10 && matches(id3, 0, "ID3")) {
+            int tagSize = (id3.get(6) & 0x7F) << 21 | (id3.get(7) & 0x7F) << 14 | (id3.get(8) & 0x7F) << 7 | (id3.get(9) & 0x7F);
+            boolean footer = (id3.get(5) & 0x10) != 0;
+            start = 10L + tagSize + (footer ? 10 : 0);
+        }
+
+        ByteBuffer scan = read(channel, start, MP3_SYNC_SCAN);
+        for (int i = 0; i + 4 <= scan.remaining(); i++) {
+            FrameHeader frame = FrameHeader.parse(scan.getInt(i));
+            if (frame == null) {
+                continue;
+            }
+            // Require a second frame right after the first so stray sync bits are not mistaken for audio
+            int next = i + frame.length;
+            if (next + 4 <= scan.remaining() && FrameHeader.parse(scan.getInt(next)) == null) {
+                continue;
+            }
+            return mp3Info(channel, start + i, frame);
+        }
+        return null;
+    }
+
+    private static AudioInfo mp3Info(FileChannel channel, long frameStart, FrameHeader frame) throws IOException {
+        long audioBytes = channel.size() - frameStart;
+        if (channel.size() >= 128 && matches(read(channel, channel.size() - 128, 3), 0, "TAG")) {
+            audioBytes -= 128;
+        }
+
+        ByteBuffer first = read(channel, frameStart, Math.max(frame.length, 4 + 36 + 26));
+        long frames = 0;
+        int xing = 4 + frame.sideInfoLength();
+        if (xing + 12 <= first.remaining() && (matches(first, xing, "Xing") || matches(first, xing, "Info"))) {
+            int flags = first.getInt(xing + 4);
+            if ((flags & 0x1) != 0) {
+                frames = first.getInt(xing + 8) & 0xFFFFFFFFL;
+            }
+        } else if (4 + 32 + 18 <= first.remaining() && matches(first, 4 + 32, "VBRI")) {
+            frames = first.getInt(4 + 32 + 14) & 0xFFFFFFFFL;
+        }
+
+        if (frames > 0) {
+            double duration = (double) frames * frame.samplesPerFrame / frame.sampleRate;
+            return new AudioInfo(duration, (int) Math.round(audioBytes * 8 / duration), frame.sampleRate);
+        }
+        return new AudioInfo(audioBytes * 8.0 / frame.bitrate, frame.bitrate, frame.sampleRate);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int offset, String magic) {
+        if (offset + magic.length() > buffer.remaining()) {
+            return false;
+        }
+        for (int i = 0; i < magic.length(); i++) {
+            if (buffer.get(offset + i) != magic.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class FrameHeader {
+        final boolean mpeg1;
+        final boolean mono;
+        final int layer;
+        final int bitrate;
+        final int sampleRate;
+        final int samplesPerFrame;
+        final int length;
+
+        private FrameHeader(boolean mpeg1, boolean mono, int layer, int bitrate, int sampleRate, int padding) {
+            this.mpeg1 = mpeg1;
+            this.mono = mono;
+            this.layer = layer;
+            this.bitrate = bitrate;
+            this.sampleRate = sampleRate;
+            this.samplesPerFrame = layer == 1 ? 384 : layer == 2 || mpeg1 ? 1152 : 576;
+            this.length = layer == 1
+                    ? (12 * bitrate / sampleRate + padding) * 4
+                    : samplesPerFrame / 8 * bitrate / sampleRate + padding;
+        }
+
+        static FrameHeader parse(int header) {
+            if ((header & 0xFFE00000) != 0xFFE00000) {
+                return null;
+            }
+            int version = header >>> 19 & 0x3;
+            int layerBits = header >>> 17 & 0x3;
+            int bitrateIndex = header >>> 12 & 0xF;
+            int sampleRateIndex = header >>> 10 & 0x3;
+            if (version == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            boolean mpeg1 = version == 3;
+            int layer = 4 - layerBits;
+            int bitrate = MP3_BITRATES[mpeg1 ? 0 : 1][layer - 1][bitrateIndex] * 1000;
+            // MPEG-2 halves the sample rate, MPEG-2.5 quarters it
+            int sampleRate = MP3_SAMPLE_RATES[sampleRateIndex] >> (mpeg1 ? 0 : version == 2 ? 1 : 2);
+            int padding = header >>> 9 & 0x1;
+            boolean mono = (header >>> 6 & 0x3) == 3;
+            return new FrameHeader(mpeg1, mono, layer, bitrate, sampleRate, padding);
+        }
+
+        int sideInfoLength() {
+            if (mpeg1) {
+                return mono ? 17 : 32;
+            }
+            return mono ? 9 : 17;
+        }
+    }
+}
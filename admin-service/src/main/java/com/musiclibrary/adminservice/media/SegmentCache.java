@@ -0,0 +1,87 @@
+package com.musiclibrary.adminservice.media;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of audio segments held in direct (off-heap) buffers and bounded by total bytes
+ * rather than entry count. Buffers handed out are read-only duplicates, so callers cannot
+ * disturb each other's position or the cached content.
+ */
+public class SegmentCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long sizeBytes;
+
+    public SegmentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public ByteBuffer get(String key) {
+        ByteBuffer buffer;
+        synchronized (this) {
+            buffer = entries.get(key);
+        }
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Caches the segment off-heap (direct buffers are kept as they are, heap buffers are copied),
+     * evicting least recently used segments to stay
+     * within the byte budget. Segments larger than the whole budget are not cached.
+     */
+    public ByteBuffer put(String key, ByteBuffer segment) {
+        int length = segment.remaining();
+        if (length > maxBytes) {
+            return segment.asReadOnlyBuffer();
+        }
+        ByteBuffer copy;
+        if (segment.isDirect()) {
+            copy = segment.slice();
+        } else {
+            copy = ByteBuffer.allocateDirect(length);
+            copy.put(segment.duplicate()).flip();
+        }
+        synchronized (this) {
+            ByteBuffer previous = entries.put(key, copy);
+            if (previous != null) {
+                sizeBytes -= previous.capacity();
+            }
+            sizeBytes += length;
+            Iterator<Map.Entry<String, ByteBuffer>> eldest = entries.entrySet().iterator();
+            while (sizeBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, ByteBuffer> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                sizeBytes -= entry.getValue().capacity();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return copy.asReadOnlyBuffer();
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public synchronized long getSizeBytes() { return sizeBytes; }
+    public synchronized int getEntryCount() { return entries.size(); }
+    public long getMaxBytes() { return maxBytes; }
+}
@@ -0,0 +1,194 @@
+package com.musiclibrary.adminservice.media;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Computes min/max peaks of PCM WAV audio in a single streaming pass. Channels are mixed by
+ * taking the extremes across all of them, and each bin is quantized to a signed byte, so a
+ * waveform of n bins is 2n bytes: min then max for every bin.
+ */
+public final class WaveformGenerator {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    private WaveformGenerator() {}
+
+    /**
+     * Whether the file is a WAV this generator can decode.
+     */
+    public static boolean isSupported(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return Layout.read(channel) != null;
+        }
+    }
+
+    /**
+     * Peaks at each requested resolution (in bins), computed from one read of the file. Each
+     * resolution must divide the largest one. Returns null when the format is not supported.
+     */
+    public static byte[][] generate(Path file, int[] resolutions) throws IOException {
+        int finest = Arrays.stream(resolutions).max().orElseThrow();
+        for (int resolution : resolutions) {
+            if (resolution <= 0 || finest % resolution != 0) {
+                throw new IllegalArgumentException("Resolutions must be positive divisors of " + finest);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Layout layout = Layout.read(channel);
+            if (layout == null) {
+                return null;
+            }
+            float[] min = new float[finest];
+            float[] max = new float[finest];
+            Arrays.fill(min, Float.POSITIVE_INFINITY);
+            Arrays.fill(max, Float.NEGATIVE_INFINITY);
+
+            long frames = layout.dataSize / layout.blockAlign;
+            int bytesPerSample = layout.bitsPerSample / 8;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE - READ_BUFFER_SIZE % layout.blockAlign)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            long frame = 0;
+            long position = layout.dataOffset;
+            while (frame < frames) {
+                buffer.clear();
+                long remaining = (frames - frame) * layout.blockAlign;
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                if (channel.read(buffer, position) <= 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.remaining() >= layout.blockAlign) {
+                    int bin = (int) (frame * finest / frames);
+                    int frameStart = buffer.position();
+                    for (int c = 0; c < layout.channels; c++) {
+                        float sample = layout.sample(buffer, frameStart + c * bytesPerSample);
+                        if (sample < min[bin]) {
+                            min[bin] = sample;
+                        }
+                        if (sample > max[bin]) {
+                            max[bin] = sample;
+                        }
+                    }
+                    buffer.position(frameStart + layout.blockAlign);
+                    frame++;
+                }
+                // Only whole frames were consumed; a partial one is read again with the next block
+                position += buffer.position();
+            }
+
+            byte[][] peaks = new byte[resolutions.length][];
+            for (int r = 0; r < resolutions.length; r++) {
+                peaks[r] = downsample(min, max, resolutions[r]);
+            }
+            return peaks;
+        }
+    }
+
+    private static byte[] downsample(float[] min, float[] max, int bins) {
+        int factor = min.length / bins;
+        byte[] peaks = new byte[bins * 2];
+        for (int b = 0; b < bins; b++) {
+            float lo = Float.POSITIVE_INFINITY;
+            float hi = Float.NEGATIVE_INFINITY;
+            for (int i = b * factor; i < (b + 1) * factor; i++) {
+                lo = Math.min(lo, min[i]);
+                hi = Math.max(hi, max[i]);
+            }
+            // Bins with no frames (audio shorter than the resolution) stay silent
+            peaks[2 * b] = lo == Float.POSITIVE_INFINITY ? 0 : quantize(lo);
+            peaks[2 * b + 1] = hi == Float.NEGATIVE_INFINITY ? 0 : quantize(hi);
+        }
+        return peaks;
+    }
+
+    private static byte quantize(float sample) {
+        return (byte) Math.max(-127, Math.min(127, Math.round(sample * 127)));
+    }
+
+    private static final class Layout {
+        int format;
+        int channels;
+        int blockAlign;
+        int bitsPerSample;
+        long dataOffset;
+        long dataSize;
+
+        static Layout read(FileChannel channel) throws IOException {
+            ByteBuffer riff = ByteBuffer.allocate(12);
+            channel.read(riff, 0);
+            if (riff.position() < 12 || !tag(riff, 0, "RIFF") || !tag(riff, 8, "WAVE")) {
+                return null;
+            }
+            Layout layout = new Layout();
+            long position = 12;
+            while (position + 8 <= channel.size()) {
+                ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(header, position);
+                long size = header.getInt(4) & 0xFFFFFFFFL;
+                long body = position + 8;
+                if (tag(header, 0, "fmt ")) {
+                    ByteBuffer fmt = ByteBuffer.allocate(26).order(ByteOrder.LITTLE_ENDIAN);
+                    channel.read(fmt, body);
+                    layout.format = fmt.getShort(0) & 0xFFFF;
+                    layout.channels = fmt.getShort(2) & 0xFFFF;
+                    layout.blockAlign = fmt.getShort(12) & 0xFFFF;
+                    layout.bitsPerSample = fmt.getShort(14) & 0xFFFF;
+                    if (layout.format == FORMAT_EXTENSIBLE && size >= 26) {
+                        // The first two bytes of the sub-format GUID carry the actual format code
+                        layout.format = fmt.getShort(24) & 0xFFFF;
+                    }
+                } else if (tag(header, 0, "data")) {
+                    layout.dataOffset = body;
+                    layout.dataSize = size == 0xFFFFFFFFL || body + size > channel.size() ? channel.size() - body : size;
+                    return layout.supported() ? layout : null;
+                }
+                position = body + size + (size & 1);
+            }
+            return null;
+        }
+
+        boolean supported() {
+            if (channels <= 0 || blockAlign != channels * bitsPerSample / 8) {
+                return false;
+            }
+            if (format == FORMAT_PCM) {
+                return bitsPerSample == 8 || bitsPerSample == 16 || bitsPerSample == 24 || bitsPerSample == 32;
+            }
+            return format == FORMAT_FLOAT && bitsPerSample == 32;
+        }
+
+        // Sample normalized to [-1, 1]; 8-bit PCM is unsigned, wider PCM is signed little-endian
+        float sample(ByteBuffer buffer, int offset) {
+            if (format == FORMAT_FLOAT) {
+                return buffer.getFloat(offset);
+            }
+            switch (bitsPerSample) {
+                case 8:
+                    return ((buffer.get(offset) & 0xFF) - 128) / 128f;
+                case 16:
+                    return buffer.getShort(offset) / 32768f;
+                case 24:
+                    int value = (buffer.get(offset) & 0xFF) | (buffer.get(offset + 1) & 0xFF) << 8 | buffer.get(offset + 2) << 16;
+                    return value / 8388608f;
+                default:
+                    return buffer.getInt(offset) / 2147483648f;
+            }
+        }
+
+        private static boolean tag(ByteBuffer buffer, int offset, String tag) {
+            return new String(buffer.array(), offset, 4, StandardCharsets.US_ASCII).equals(tag);
+        }
+    }
+}
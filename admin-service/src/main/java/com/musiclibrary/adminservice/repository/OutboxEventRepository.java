@@ -0,0 +1,15 @@
+package com.musiclibrary.adminservice.repository;
+
+import com.musiclibrary.adminservice.entity.OutboxEvent;
+import com.musiclibrary.adminservice.entity.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxStatus status, LocalDateTime now, Pageable pageable);
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,12 @@
+package com.musiclibrary.adminservice.repository;
+
+import com.musiclibrary.adminservice.entity.SongChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface SongChangeRepository extends JpaRepository<SongChange, Long> {
+    List<SongChange> findByIdGreaterThanAndIdLessThanOrderByIdAsc(Long since, Long before, Pageable pageable);
+}
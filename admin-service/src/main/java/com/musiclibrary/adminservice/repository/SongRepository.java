@@ -1,24 +1,52 @@
 package com.musiclibrary.adminservice.repository;
 
 import com.musiclibrary.adminservice.entity.Song;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface SongRepository extends JpaRepository<Song, Long> {
+public interface SongRepository extends JpaRepository<Song, Long>, SongRepositoryCustom {
     List<Song> findByIsVisibleTrue();
-    List<Song> findByNameContainingIgnoreCase(String name);
-    List<Song> findBySingerContainingIgnoreCase(String singer);
-    List<Song> findByMusicDirectorContainingIgnoreCase(String musicDirector);
-    List<Song> findByAlbumNameContainingIgnoreCase(String albumName);
     
-    @Query("SELECT s FROM Song s WHERE s.isVisible = true AND " +
-           "(LOWER(s.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(s.singer) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(s.musicDirector) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(s.albumName) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<Song> searchSongs(@Param("searchTerm") String searchTerm);
+    @Query("SELECT s.id FROM Song s WHERE s.isVisible = true")
+    List<Long> findVisibleIds();
+    
+    @Query("SELECT MAX(s.id) FROM Song s")
+    Long findMaxId();
+    
+    @Query("SELECT s.id FROM Song s WHERE s.updatedAt = :updatedAt")
+    List<Long> findIdsByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+    long countByContentHash(String contentHash);
+    
+    // Cursor over the whole catalog; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Song s ORDER BY s.id")
+    Stream<Song> streamAllOrderedById();
+    
+    // Songs whose file has not been probed since filePath was last set
+    @Query("SELECT s FROM Song s WHERE s.filePath IS NOT NULL AND " +
+           "(s.probedFilePath IS NULL OR s.probedFilePath <> s.filePath) ORDER BY s.id")
+    List<Song> findUnprobed(Pageable pageable);
+    
+    // Only applies if the file has not changed since the probe started; keeps any hand-entered durationMinutes
+    @Modifying
+    @Query("UPDATE Song s SET s.durationSeconds = :durationSeconds, s.bitrate = :bitrate, s.sampleRate = :sampleRate, " +
+           "s.durationMinutes = COALESCE(s.durationMinutes, :durationMinutes), s.probedFilePath = :filePath " +
+           "WHERE s.id = :id AND s.filePath = :filePath")
+    int updateMediaInfo(@Param("id") Long id, @Param("filePath") String filePath,
+                        @Param("durationSeconds") Double durationSeconds, @Param("bitrate") Integer bitrate,
+                        @Param("sampleRate") Integer sampleRate, @Param("durationMinutes") Integer durationMinutes);
 }
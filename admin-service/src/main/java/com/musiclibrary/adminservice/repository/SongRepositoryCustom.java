@@ -0,0 +1,30 @@
+package com.musiclibrary.adminservice.repository;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface SongRepositoryCustom {
+    
+    /**
+     * Keyset page of songs ordered by the sort key then id, starting strictly after
+     * the given (afterValue, afterId) position. A null afterId starts from the beginning.
+     */
+    List<Song> findPage(boolean visibleOnly, SongSort sort, boolean descending,
+                        Object afterValue, Long afterId, int limit);
+    
+    /**
+     * Sets the given attributes on all listed songs in one UPDATE statement, bypassing the
+     * persistence context. Returns the number of rows updated.
+     */
+    int updateAll(List<Long> ids, Map<String, Object> changes);
+    
+    /**
+     * Sets the given attributes, and updatedAt, on every song whose attributes equal each
+     * non-null value in criteria, in one UPDATE statement bypassing the persistence context.
+     * Returns the number of rows updated.
+     */
+    int updateMatching(Map<String, Object> criteria, Map<String, Object> changes, LocalDateTime updatedAt);
+}
@@ -0,0 +1,107 @@
+package com.musiclibrary.adminservice.repository;
+
+import com.musiclibrary.adminservice.entity.Song;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SongRepositoryImpl implements SongRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Song> findPage(boolean visibleOnly, SongSort sort, boolean descending,
+                               Object afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Song> query = cb.createQuery(Song.class);
+        Root<Song> song = query.from(Song.class);
+        Path<Long> id = song.get("id");
+        
+        List<Predicate> predicates = new ArrayList<>();
+        if (visibleOnly) {
+            predicates.add(cb.isTrue(song.<Boolean>get("isVisible")));
+        }
+        if (afterId != null) {
+            switch (sort) {
+                case RELEASE_DATE:
+                    predicates.add(after(cb, song.<LocalDate>get("releaseDate"), (LocalDate) afterValue,
+                            id, afterId, descending));
+                    break;
+                case NAME:
+                    predicates.add(after(cb, song.<String>get("name"), (String) afterValue,
+                            id, afterId, descending));
+                    break;
+                default:
+                    predicates.add(descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+            }
+        }
+        query.select(song).where(predicates.toArray(new Predicate[0]));
+        
+        if (sort == SongSort.ID) {
+            query.orderBy(descending ? cb.desc(id) : cb.asc(id));
+        } else {
+            Path<?> key = song.get(sort.getProperty());
+            query.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+        }
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public int updateAll(List<Long> ids, Map<String, Object> changes) {
+        if (ids.isEmpty() || changes.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Song> update = cb.createCriteriaUpdate(Song.class);
+        Root<Song> song = update.from(Song.class);
+        changes.forEach(update::set);
+        // Bulk updates skip @PreUpdate, so the timestamp is set here
+        update.set("updatedAt", LocalDateTime.now());
+        update.where(song.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    @Override
+    public int updateMatching(Map<String, Object> criteria, Map<String, Object> changes, LocalDateTime updatedAt) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Song> update = cb.createCriteriaUpdate(Song.class);
+        Root<Song> song = update.from(Song.class);
+        changes.forEach(update::set);
+        update.set("updatedAt", updatedAt);
+        List<Predicate> predicates = new ArrayList<>();
+        criteria.forEach((attribute, value) -> {
+            if (value != null) {
+                predicates.add(cb.equal(song.get(attribute), value));
+            }
+        });
+        update.where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    // (key, id) strictly after (value, afterId) in the requested direction
+    private static <T extends Comparable<? super T>> Predicate after(CriteriaBuilder cb, Path<T> key, T value,
+                                                                     Path<Long> id, Long afterId, boolean descending) {
+        if (descending) {
+            return cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, afterId)));
+        }
+        return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, afterId)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.musiclibrary.adminservice.repository;
+
+/**
+ * Sort keys supported by keyset-paginated song listings. Every order is made total
+ * by breaking ties on the song id.
+ */
+public enum SongSort {
+    ID("id"),
+    RELEASE_DATE("releaseDate"),
+    NAME("name");
+
+    private final String property;
+
+    SongSort(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static SongSort fromProperty(String property) {
+        for (SongSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(property)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + property);
+    }
+}
@@ -0,0 +1,86 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree over terms under Damerau-Levenshtein distance. A query only
+ * descends into children whose edge distance lies within the triangle-inequality band,
+ * so bounded-distance lookups touch a small fraction of the vocabulary.
+ * Terms cannot be removed; callers filter out dead terms and rebuild when needed.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class BkTree {
+
+    private Node root;
+    private int size;
+
+    public void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = EditDistance.damerauLevenshtein(term, node.term);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * All terms within maxDistance of the query
+     */
+    public List<String> search(String query, int maxDistance) {
+        List<String> result = new ArrayList<>();
+        if (root == null) {
+            return result;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = EditDistance.damerauLevenshtein(query, node.term);
+            if (distance <= maxDistance) {
+                result.add(node.term);
+            }
+            for (Map.Entry<Integer, Node> edge : node.children.entrySet()) {
+                if (Math.abs(edge.getKey() - distance) <= maxDistance) {
+                    pending.push(edge.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static final class Node {
+        final String term;
+        final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ranks song documents with BM25F: term frequencies are length-normalised per field,
+ * combined with per-field boosts and saturated once per query term. Only the best
+ * {@code k} documents are kept, in a bounded min-heap, so ranking a large match set
+ * costs O(n log k) rather than a full sort.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class Bm25Ranker {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<ScoredId> WORST_FIRST = Comparator
+            .comparingDouble((ScoredId s) -> s.score)
+            .thenComparing(s -> s.id, Comparator.reverseOrder());
+
+    private final Map<Long, String[][]> documents = new HashMap<>();
+    private final long[] totalFieldLength = new long[SongField.values().length];
+
+    public void add(Long id, Map<SongField, List<String>> fieldTokens) {
+        remove(id);
+        String[][] fields = new String[SongField.values().length][];
+        for (SongField field : SongField.values()) {
+            List<String> tokens = fieldTokens.getOrDefault(field, Collections.emptyList());
+            fields[field.ordinal()] = tokens.toArray(new String[0]);
+            totalFieldLength[field.ordinal()] += tokens.size();
+        }
+        documents.put(id, fields);
+    }
+
+    public void remove(Long id) {
+        String[][] fields = documents.remove(id);
+        if (fields != null) {
+            for (int f = 0; f < fields.length; f++) {
+                totalFieldLength[f] -= fields[f].length;
+            }
+        }
+    }
+
+    public void clear() {
+        documents.clear();
+        Arrays.fill(totalFieldLength, 0);
+    }
+
+    /**
+     * Best k candidates for the query, highest score first; ties go to the lower id.
+     * A document token matches a query token when it equals or starts with it, so
+     * partially typed words still contribute to the score.
+     *
+     * @param documentFrequency number of documents containing a token, for idf
+     */
+    public List<Long> topK(Collection<Long> candidates, List<String> queryTokens,
+                           EnumMap<SongField, Double> boosts, ToIntFunction<String> documentFrequency, int k) {
+        List<Map<String, Double>> queryTerms = new ArrayList<>(queryTokens.size());
+        for (String token : queryTokens) {
+            queryTerms.add(Map.of(token, 1.0));
+        }
+        return topKExpanded(candidates, queryTerms, boosts, documentFrequency, k);
+    }
+
+    /**
+     * Like {@link #topK}, but each query word stands for a set of alternative terms with a
+     * weight each, such as the vocabulary terms a misspelled word resolved to. A word scores
+     * as its best weighted alternative in the document.
+     */
+    public List<Long> topKExpanded(Collection<Long> candidates, List<Map<String, Double>> queryTerms,
+                                   EnumMap<SongField, Double> boosts, ToIntFunction<String> documentFrequency, int k) {
+        if (k <= 0 || candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int n = Math.max(documents.size(), 1);
+        List<QueryTerm[]> query = new ArrayList<>(queryTerms.size());
+        for (Map<String, Double> alternatives : queryTerms) {
+            QueryTerm[] terms = new QueryTerm[alternatives.size()];
+            int t = 0;
+            for (Map.Entry<String, Double> alternative : alternatives.entrySet()) {
+                int df = documentFrequency.applyAsInt(alternative.getKey());
+                if (df == 0) {
+                    // Prefix-only token: the candidates themselves are the documents that contain it
+                    df = candidates.size();
+                }
+                double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+                terms[t++] = new QueryTerm(alternative.getKey(), idf * alternative.getValue());
+            }
+            query.add(terms);
+        }
+        double[] averageLength = new double[totalFieldLength.length];
+        for (int f = 0; f < averageLength.length; f++) {
+            averageLength[f] = Math.max(1.0, (double) totalFieldLength[f] / n);
+        }
+
+        PriorityQueue<ScoredId> heap = new PriorityQueue<>(Math.min(k, candidates.size()) + 1, WORST_FIRST);
+        for (Long id : candidates) {
+            String[][] fields = documents.get(id);
+            double score = fields == null ? 0 : score(fields, query, boosts, averageLength);
+            ScoredId scored = new ScoredId(id, score);
+            if (heap.size() < k) {
+                heap.add(scored);
+            } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+
+        List<Long> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().id);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static double score(String[][] fields, List<QueryTerm[]> query,
+                                EnumMap<SongField, Double> boosts, double[] averageLength) {
+        double score = 0;
+        for (QueryTerm[] alternatives : query) {
+            double best = 0;
+            for (QueryTerm term : alternatives) {
+                double weightedTf = 0;
+                for (Map.Entry<SongField, Double> boost : boosts.entrySet()) {
+                    int f = boost.getKey().ordinal();
+                    int tf = 0;
+                    for (String token : fields[f]) {
+                        if (token.startsWith(term.token)) {
+                            tf++;
+                        }
+                    }
+                    if (tf > 0) {
+                        double norm = 1 - B + B * fields[f].length / averageLength[f];
+                        weightedTf += boost.getValue() * tf / norm;
+                    }
+                }
+                best = Math.max(best, term.weight * weightedTf * (K1 + 1) / (weightedTf + K1));
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    private static final class QueryTerm {
+        final String token;
+        // idf times the caller's weight for this alternative
+        final double weight;
+
+        QueryTerm(String token, double weight) {
+            this.token = token;
+            this.weight = weight;
+        }
+    }
+
+    private static final class ScoredId {
+        final Long id;
+        final double score;
+
+        ScoredId(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative ints in the style of a roaring bitmap. Values are
+ * bucketed by their high 16 bits; each bucket holds a sorted {@code char[]} while sparse and
+ * switches to a 1024-word bitset once dense. Intersections only visit buckets present in
+ * both operands, so counting overlaps between a small match set and a large facet bitmap is cheap.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class CompactBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITSET_WORDS = 1024;
+
+    private char[] keys = new char[0];
+    private Object[] containers = new Object[0];
+    private int[] cardinalities = new int[0];
+    private int size;
+    private int cardinality;
+
+    public void add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int i = bucket(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertBucket(i, key, new char[] { low }, 1);
+            cardinality++;
+            return;
+        }
+        Object container = containers[i];
+        if (container instanceof long[]) {
+            long[] bits = (long[]) container;
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                bits[low >>> 6] |= mask;
+                cardinalities[i]++;
+                cardinality++;
+            }
+            return;
+        }
+        char[] values = (char[]) container;
+        int n = cardinalities[i];
+        int pos = Arrays.binarySearch(values, 0, n, low);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (n == ARRAY_MAX) {
+            long[] bits = toBitset(values, n);
+            bits[low >>> 6] |= 1L << low;
+            containers[i] = bits;
+        } else {
+            if (n == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, n * 2)));
+                containers[i] = values;
+            }
+            System.arraycopy(values, pos, values, pos + 1, n - pos);
+            values[pos] = low;
+        }
+        cardinalities[i]++;
+        cardinality++;
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int i = bucket((char) (value >>> 16));
+        if (i < 0) {
+            return;
+        }
+        char low = (char) value;
+        Object container = containers[i];
+        if (container instanceof long[]) {
+            long[] bits = (long[]) container;
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                return;
+            }
+            bits[low >>> 6] &= ~mask;
+            cardinalities[i]--;
+            if (cardinalities[i] <= ARRAY_MAX) {
+                containers[i] = toArray(bits, cardinalities[i]);
+            }
+        } else {
+            char[] values = (char[]) container;
+            int n = cardinalities[i];
+            int pos = Arrays.binarySearch(values, 0, n, low);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(values, pos + 1, values, pos, n - pos - 1);
+            cardinalities[i]--;
+        }
+        cardinality--;
+        if (cardinalities[i] == 0) {
+            removeBucket(i);
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int i = bucket((char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[i];
+        if (container instanceof long[]) {
+            return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[i], low) >= 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Size of the intersection with another bitmap, without materialising it
+     */
+    public int andCardinality(CompactBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += intersectCount(containers[i], cardinalities[i], other.containers[j], other.cardinalities[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static int intersectCount(Object a, int aCard, Object b, int bCard) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            int count = 0;
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                count += Long.bitCount(x[w] & y[w]);
+            }
+            return count;
+        }
+        if (a instanceof long[]) {
+            return countInBitset((long[]) a, (char[]) b, bCard);
+        }
+        if (b instanceof long[]) {
+            return countInBitset((long[]) b, (char[]) a, aCard);
+        }
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < aCard && j < bCard) {
+            if (x[i] < y[j]) {
+                i++;
+            } else if (x[i] > y[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static int countInBitset(long[] bits, char[] values, int n) {
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            char low = values[k];
+            if ((bits[low >>> 6] & (1L << low)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] toBitset(char[] values, int n) {
+        long[] bits = new long[BITSET_WORDS];
+        for (int k = 0; k < n; k++) {
+            bits[values[k] >>> 6] |= 1L << values[k];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int n) {
+        char[] values = new char[n];
+        int k = 0;
+        for (int w = 0; w < BITSET_WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                values[k++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+
+    private int bucket(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertBucket(int i, char key, Object container, int containerCardinality) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        System.arraycopy(cardinalities, i, cardinalities, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        cardinalities[i] = containerCardinality;
+        size++;
+    }
+
+    private void removeBucket(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        System.arraycopy(cardinalities, i + 1, cardinalities, i, size - i - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+    }
+}
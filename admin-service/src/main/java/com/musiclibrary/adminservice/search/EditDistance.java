@@ -0,0 +1,59 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * String distance functions used by fuzzy search
+ */
+public final class EditDistance {
+
+    private EditDistance() {}
+
+    /**
+     * Unrestricted Damerau-Levenshtein distance: insertions, deletions, substitutions and
+     * transpositions of adjacent characters each cost one. Unlike the optimal string alignment
+     * variant this is a true metric, which the BK-tree relies on.
+     */
+    public static int damerauLevenshtein(String a, String b) {
+        int m = a.length();
+        int n = b.length();
+        if (m == 0) {
+            return n;
+        }
+        if (n == 0) {
+            return m;
+        }
+
+        int infinity = m + n;
+        int[][] d = new int[m + 2][n + 2];
+        d[0][0] = infinity;
+        for (int i = 0; i <= m; i++) {
+            d[i + 1][0] = infinity;
+            d[i + 1][1] = i;
+        }
+        for (int j = 0; j <= n; j++) {
+            d[0][j + 1] = infinity;
+            d[1][j + 1] = j;
+        }
+
+        Map<Character, Integer> lastRow = new HashMap<>();
+        for (int i = 1; i <= m; i++) {
+            int lastMatchColumn = 0;
+            for (int j = 1; j <= n; j++) {
+                int i1 = lastRow.getOrDefault(b.charAt(j - 1), 0);
+                int j1 = lastMatchColumn;
+                int cost = 1;
+                if (a.charAt(i - 1) == b.charAt(j - 1)) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                d[i + 1][j + 1] = Math.min(
+                        Math.min(d[i][j] + cost, d[i + 1][j] + 1),
+                        Math.min(d[i][j + 1] + 1, d[i1][j1] + (i - i1 - 1) + 1 + (j - j1 - 1)));
+            }
+            lastRow.put(a.charAt(i - 1), i);
+        }
+        return d[m + 1][n + 1];
+    }
+}
@@ -0,0 +1,38 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+/**
+ * Song attributes that search results can be counted by
+ */
+public enum Facet {
+    SINGER("singer"),
+    ALBUM("albumName"),
+    MUSIC_DIRECTOR("musicDirector"),
+    RELEASE_YEAR("releaseYear");
+
+    private final String key;
+
+    Facet(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String valueOf(Song song) {
+        switch (this) {
+            case SINGER:
+                return song.getSinger();
+            case ALBUM:
+                return song.getAlbumName();
+            case MUSIC_DIRECTOR:
+                return song.getMusicDirector();
+            case RELEASE_YEAR:
+                return song.getReleaseDate() == null ? null : String.valueOf(song.getReleaseDate().getYear());
+            default:
+                throw new IllegalStateException("Unknown facet: " + this);
+        }
+    }
+}
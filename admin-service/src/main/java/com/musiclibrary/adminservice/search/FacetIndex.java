@@ -0,0 +1,180 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Per-value bitmaps of song ids for each {@link Facet}, plus each song's own facet values.
+ * Facet counts for a match set come from whichever side is smaller: the matches' values, or
+ * the intersection cardinalities of the match bitmap with each value's bitmap.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class FacetIndex {
+
+    private final Map<Facet, Map<String, CompactBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final Map<Long, String[]> documentValues = new HashMap<>();
+
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    public void add(Song song) {
+        remove(song.getId());
+        int doc = toDoc(song.getId());
+        String[] values = new String[Facet.values().length];
+        for (Facet facet : Facet.values()) {
+            String value = facet.valueOf(song);
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            values[facet.ordinal()] = value;
+            bitmaps.get(facet).computeIfAbsent(value, v -> new CompactBitmap()).add(doc);
+        }
+        documentValues.put(song.getId(), values);
+    }
+
+    public void remove(Long id) {
+        String[] values = documentValues.remove(id);
+        if (values == null) {
+            return;
+        }
+        int doc = toDoc(id);
+        for (Facet facet : Facet.values()) {
+            String value = values[facet.ordinal()];
+            if (value == null) {
+                continue;
+            }
+            Map<String, CompactBitmap> byValue = bitmaps.get(facet);
+            CompactBitmap bitmap = byValue.get(value);
+            if (bitmap != null) {
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    byValue.remove(value);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        bitmaps.values().forEach(Map::clear);
+        documentValues.clear();
+    }
+
+    /**
+     * Most frequent values of every facet within the matched ids, at most {@code limit} per facet.
+     * A facet with more distinct values than there are matches is counted from the matches' own
+     * values; otherwise each value's bitmap is intersected with the matches, skipping values too
+     * rare to make the top {@code limit}.
+     */
+    public Map<Facet, List<FacetCount>> count(Collection<Long> matches, int limit) {
+        Map<Facet, List<FacetCount>> result = new EnumMap<>(Facet.class);
+        CompactBitmap matchBitmap = null;
+        for (Facet facet : Facet.values()) {
+            if (limit <= 0 || matches.isEmpty()) {
+                result.put(facet, new ArrayList<>());
+            } else if (matches.size() <= bitmaps.get(facet).size()) {
+                result.put(facet, topOfMatches(facet, matches, limit));
+            } else {
+                if (matchBitmap == null) {
+                    matchBitmap = new CompactBitmap();
+                    for (Long id : matches) {
+                        matchBitmap.add(toDoc(id));
+                    }
+                }
+                result.put(facet, topOfBitmaps(facet, matchBitmap, limit));
+            }
+        }
+        return result;
+    }
+
+    private List<FacetCount> topOfMatches(Facet facet, Collection<Long> matches, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Long id : matches) {
+            String[] values = documentValues.get(id);
+            if (values != null && values[facet.ordinal()] != null) {
+                counts.merge(values[facet.ordinal()], 1, Integer::sum);
+            }
+        }
+        TopCounts top = new TopCounts(limit);
+        counts.forEach((value, count) -> top.offer(value, count));
+        return top.toList();
+    }
+
+    private List<FacetCount> topOfBitmaps(Facet facet, CompactBitmap matches, int limit) {
+        TopCounts top = new TopCounts(limit);
+        for (Map.Entry<String, CompactBitmap> entry : bitmaps.get(facet).entrySet()) {
+            // A value can match at most as many songs as it has, so rare values cannot displace the floor
+            if (entry.getValue().cardinality() < top.floor()) {
+                continue;
+            }
+            int count = entry.getValue().andCardinality(matches);
+            if (count > 0) {
+                top.offer(entry.getKey(), count);
+            }
+        }
+        return top.toList();
+    }
+
+    private static int toDoc(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    // Bounded min-heap of the best counts seen so far; ties go to the smaller value
+    private static final class TopCounts {
+        private static final Comparator<FacetCount> WORST_FIRST = Comparator.comparingInt(FacetCount::getCount)
+                .thenComparing(FacetCount::getValue, Comparator.reverseOrder());
+
+        private final int limit;
+        private final PriorityQueue<FacetCount> heap;
+
+        TopCounts(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        }
+
+        // Smallest count that could still enter the top list
+        int floor() {
+            return heap.size() < limit ? 1 : heap.peek().getCount();
+        }
+
+        void offer(String value, int count) {
+            FacetCount candidate = new FacetCount(value, count);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<FacetCount> toList() {
+            List<FacetCount> result = new ArrayList<>(heap);
+            result.sort(Collections.reverseOrder(WORST_FIRST));
+            return result;
+        }
+    }
+
+    public static final class FacetCount {
+        private final String value;
+        private final int count;
+
+        FacetCount(String value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() { return value; }
+        public int getCount() { return count; }
+    }
+}
@@ -0,0 +1,187 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Songs grouped by one text value (album, singer) and kept ready for browsing: groups in
+ * locale-aware order, each holding its song ids in a fixed order along with its earliest
+ * release date. Names are compared through precomputed {@link CollationKey}s, so ordering never
+ * runs the collator per comparison. Not thread-safe; callers are expected to guard access.
+ */
+public class GroupIndex {
+
+    public enum MemberOrder { RELEASE_DATE, NAME }
+
+    private static final Comparator<Member> BY_NAME = Comparator
+            .comparing((Member m) -> m.nameKey)
+            .thenComparingLong(m -> m.id);
+
+    private static final Comparator<Member> BY_RELEASE_DATE = Comparator
+            .comparing((Member m) -> m.releaseDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(BY_NAME);
+
+    private final Collator collator;
+    private final Function<Song, String> groupOf;
+    private final Comparator<Member> memberOrder;
+    private final TreeMap<GroupKey, Group> groups = new TreeMap<>();
+    private final Map<String, Group> byName = new HashMap<>();
+    private final Map<Long, Member> members = new HashMap<>();
+
+    public GroupIndex(Collator collator, Function<Song, String> groupOf, MemberOrder order) {
+        this.collator = collator;
+        this.groupOf = groupOf;
+        this.memberOrder = order == MemberOrder.NAME ? BY_NAME : BY_RELEASE_DATE;
+    }
+
+    public void add(Song song) {
+        remove(song.getId());
+        String value = groupOf.apply(song);
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String name = value.trim();
+        Group group = byName.get(name);
+        if (group == null) {
+            group = new Group(keyOf(name), memberOrder);
+            byName.put(name, group);
+            groups.put(group.key, group);
+        }
+        Member member = new Member(song.getId(), group, collator.getCollationKey(nullToEmpty(song.getName())),
+                song.getReleaseDate());
+        group.add(member);
+        members.put(member.id, member);
+    }
+
+    public void remove(Long id) {
+        Member member = members.remove(id);
+        if (member == null) {
+            return;
+        }
+        Group group = member.group;
+        group.remove(member);
+        if (group.members.isEmpty()) {
+            groups.remove(group.key);
+            byName.remove(group.getName());
+        }
+    }
+
+    public void clear() {
+        groups.clear();
+        byName.clear();
+        members.clear();
+    }
+
+    public Group get(String name) {
+        return name == null ? null : byName.get(name.trim());
+    }
+
+    /**
+     * Up to {@code limit} groups in collation order, starting strictly after the named group
+     * (which need not exist any more). A null {@code after} starts from the first group.
+     */
+    public List<Group> page(String after, int limit) {
+        Collection<Group> tail = after == null ? groups.values() : groups.tailMap(keyOf(after.trim()), false).values();
+        List<Group> page = new ArrayList<>(Math.min(limit, groups.size()));
+        for (Group group : tail) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(group);
+        }
+        return page;
+    }
+
+    public int size() {
+        return groups.size();
+    }
+
+    private GroupKey keyOf(String name) {
+        return new GroupKey(collator.getCollationKey(name), name);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    public static final class Group {
+        private final GroupKey key;
+        private final TreeSet<Member> members;
+        // Release date multiset, so the earliest date survives removals without a rescan
+        private final TreeMap<LocalDate, Integer> releaseDates = new TreeMap<>();
+
+        private Group(GroupKey key, Comparator<Member> order) {
+            this.key = key;
+            this.members = new TreeSet<>(order);
+        }
+
+        private void add(Member member) {
+            members.add(member);
+            if (member.releaseDate != null) {
+                releaseDates.merge(member.releaseDate, 1, Integer::sum);
+            }
+        }
+
+        private void remove(Member member) {
+            members.remove(member);
+            if (member.releaseDate != null) {
+                releaseDates.computeIfPresent(member.releaseDate, (date, count) -> count == 1 ? null : count - 1);
+            }
+        }
+
+        public String getName() { return key.name; }
+        public int getSongCount() { return members.size(); }
+        public LocalDate getEarliestReleaseDate() { return releaseDates.isEmpty() ? null : releaseDates.firstKey(); }
+
+        public List<Long> getSongIds() {
+            List<Long> ids = new ArrayList<>(members.size());
+            for (Member member : members) {
+                ids.add(member.id);
+            }
+            return ids;
+        }
+    }
+
+    private static final class GroupKey implements Comparable<GroupKey> {
+        final CollationKey collationKey;
+        final String name;
+
+        GroupKey(CollationKey collationKey, String name) {
+            this.collationKey = collationKey;
+            this.name = name;
+        }
+
+        // Names the collator treats as equal still get distinct, stable positions
+        @Override
+        public int compareTo(GroupKey other) {
+            int result = collationKey.compareTo(other.collationKey);
+            return result != 0 ? result : name.compareTo(other.name);
+        }
+    }
+
+    private static final class Member {
+        final long id;
+        final Group group;
+        final CollationKey nameKey;
+        final LocalDate releaseDate;
+
+        Member(long id, Group group, CollationKey nameKey, LocalDate releaseDate) {
+            this.id = id;
+            this.group = group;
+            this.nameKey = nameKey;
+            this.releaseDate = releaseDate;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted prefix trie for autocomplete. Children are kept in sorted parallel arrays
+ * rather than per-node maps, and every node caches the best weight in its subtree so
+ * top-N completions are found best-first without visiting the whole subtree.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class PrefixTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private Node root = new Node();
+    private int size;
+
+    /**
+     * Adds delta to the weight stored under key, creating or removing the entry as needed
+     */
+    public void adjust(String key, String text, int delta) {
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                if (delta <= 0) {
+                    return;
+                }
+                child = node.addChild(key.charAt(i));
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+
+        boolean wasTerminal = node.weight > 0;
+        node.weight = Math.max(0, node.weight + delta);
+        if (node.weight > 0) {
+            if (!wasTerminal) {
+                node.text = text;
+                size++;
+            }
+        } else {
+            node.text = null;
+            if (wasTerminal) {
+                size--;
+            }
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node current = path[i];
+            if (i > 0 && current.weight == 0 && current.labels.length == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+            current.recomputeMaxWeight();
+        }
+    }
+
+    /**
+     * Highest weighted entries whose key starts with the prefix, best first
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        List<Completion> result = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || limit <= 0) {
+            return result;
+        }
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(node, node.maxWeight, false));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node current = candidate.node;
+            if (candidate.terminal) {
+                result.add(new Completion(current.text, current.weight));
+                continue;
+            }
+            if (current.weight > 0) {
+                queue.add(new Candidate(current, current.weight, true));
+            }
+            for (Node child : current.children) {
+                queue.add(new Candidate(child, child.maxWeight, false));
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        root = new Node();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static final class Completion {
+        private final String text;
+        private final int weight;
+
+        Completion(String text, int weight) {
+            this.text = text;
+            this.weight = weight;
+        }
+
+        public String getText() { return text; }
+        public int getWeight() { return weight; }
+    }
+
+    private static final class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        String text;
+        int weight;
+        int maxWeight;
+
+        Node child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node addChild(char label) {
+            int insertAt = -(Arrays.binarySearch(labels, label) + 1);
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            Node child = new Node();
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i < 0) {
+                return;
+            }
+            if (labels.length == 1) {
+                labels = NO_LABELS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        void recomputeMaxWeight() {
+            int max = weight;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        final Node node;
+        final int priority;
+        final boolean terminal;
+
+        Candidate(Node node, int priority, boolean terminal) {
+            this.node = node;
+            this.priority = priority;
+            this.terminal = terminal;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            // Prefer emitting a finished entry over expanding a subtree with the same bound
+            return Boolean.compare(other.terminal, terminal);
+        }
+    }
+}
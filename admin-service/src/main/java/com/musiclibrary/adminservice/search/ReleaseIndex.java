@@ -0,0 +1,107 @@
+package com.musiclibrary.adminservice.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Song ids ordered by (release date, id) in a skip list, so a date range is located in
+ * logarithmic time and read in order without touching songs outside it. Reads are lock-free;
+ * callers must serialize {@link #add} and {@link #remove}.
+ */
+public class ReleaseIndex {
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+    private final Map<Long, Entry> byId = new HashMap<>();
+
+    public void add(Long id, LocalDate releaseDate) {
+        remove(id);
+        if (releaseDate == null) {
+            return;
+        }
+        Entry entry = new Entry(releaseDate, id);
+        entries.add(entry);
+        byId.put(id, entry);
+    }
+
+    public void remove(Long id) {
+        Entry entry = byId.remove(id);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        byId.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Up to {@code limit} ids released between from and to (inclusive, either may be null for
+     * unbounded), oldest or newest first, continuing strictly after (afterDate, afterId) if given.
+     * A cursor outside the range is rejected with IllegalArgumentException.
+     */
+    public List<Long> range(LocalDate from, LocalDate to, boolean descending,
+                            LocalDate afterDate, Long afterId, int limit) {
+        NavigableSet<Entry> view = entries;
+        if (from != null && to != null) {
+            view = view.subSet(new Entry(from, Long.MIN_VALUE), true, new Entry(to, Long.MAX_VALUE), true);
+        } else if (from != null) {
+            view = view.tailSet(new Entry(from, Long.MIN_VALUE), true);
+        } else if (to != null) {
+            view = view.headSet(new Entry(to, Long.MAX_VALUE), true);
+        }
+        if (descending) {
+            view = view.descendingSet();
+        }
+        if (afterId != null) {
+            try {
+                view = view.tailSet(new Entry(afterDate, afterId), false);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor is outside the requested date range");
+            }
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, 256));
+        for (Entry entry : view) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final LocalDate releaseDate;
+        final long id;
+
+        Entry(LocalDate releaseDate, long id) {
+            this.releaseDate = releaseDate;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = releaseDate.compareTo(other.releaseDate);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && compareTo((Entry) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return releaseDate.hashCode() * 31 + Long.hashCode(id);
+        }
+    }
+}
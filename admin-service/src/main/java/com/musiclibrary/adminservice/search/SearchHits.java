@@ -0,0 +1,32 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked song ids for a query, plus facet counts over the full match set when requested
+ */
+public class SearchHits {
+
+    private final List<Long> ids;
+    private final int totalMatches;
+    private final Map<Facet, List<FacetIndex.FacetCount>> facets;
+
+    public SearchHits(List<Long> ids, int totalMatches, Map<Facet, List<FacetIndex.FacetCount>> facets) {
+        this.ids = ids;
+        this.totalMatches = totalMatches;
+        this.facets = facets;
+    }
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0, null);
+    }
+
+    public List<Long> getIds() { return ids; }
+    public int getTotalMatches() { return totalMatches; }
+    public Map<Facet, List<FacetIndex.FacetCount>> getFacets() { return facets; }
+
+    public boolean isEmpty() {
+        return totalMatches == 0;
+    }
+}
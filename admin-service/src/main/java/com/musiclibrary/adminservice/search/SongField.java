@@ -0,0 +1,28 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+/**
+ * Searchable text fields of a song
+ */
+public enum SongField {
+    NAME,
+    SINGER,
+    MUSIC_DIRECTOR,
+    ALBUM;
+
+    public String valueOf(Song song) {
+        switch (this) {
+            case NAME:
+                return song.getName();
+            case SINGER:
+                return song.getSinger();
+            case MUSIC_DIRECTOR:
+                return song.getMusicDirector();
+            case ALBUM:
+                return song.getAlbumName();
+            default:
+                throw new IllegalStateException("Unknown field: " + this);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized identity of a song used to spot duplicates: name, singer and album, each
+ * case-folded, stripped of diacritics and with whitespace collapsed. Songs that differ only in
+ * accents, capitalization or spacing share a fingerprint.
+ */
+public final class SongFingerprint {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char SEPARATOR = '\u001F';
+
+    private SongFingerprint() {}
+
+    public static String of(Song song) {
+        return normalize(song.getName()) + SEPARATOR + normalize(song.getSinger()) + SEPARATOR
+                + normalize(song.getAlbumName());
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        // Upper then lower folds the cases plain lower-casing misses, e.g. the German sharp s and "ss"
+        String folded = stripped.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+}
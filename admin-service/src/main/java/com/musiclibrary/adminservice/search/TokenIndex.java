@@ -0,0 +1,134 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from word tokens to document ids, with a BK-tree over the vocabulary
+ * for typo-tolerant token lookup.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class TokenIndex {
+
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> documentTokens = new HashMap<>();
+    private final BkTree vocabulary = new BkTree();
+    private int deadTerms;
+
+    public void add(Long id, Collection<String> tokens) {
+        remove(id);
+        Set<String> distinct = new HashSet<>(tokens);
+        if (distinct.isEmpty()) {
+            return;
+        }
+        documentTokens.put(id, distinct);
+        for (String token : distinct) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(token, ids);
+                vocabulary.add(token);
+            }
+            ids.add(id);
+        }
+    }
+
+    public void remove(Long id) {
+        Set<String> tokens = documentTokens.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                    deadTerms++;
+                }
+            }
+        }
+        // Terms stay in the BK-tree after their last document goes; rebuild once they dominate it
+        if (deadTerms > MIN_COMPACTION_SIZE && deadTerms > postings.size()) {
+            compact();
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        documentTokens.clear();
+        vocabulary.clear();
+        deadTerms = 0;
+    }
+
+    /**
+     * Ids of documents containing the exact token
+     */
+    public Set<Long> lookup(String token) {
+        return postings.getOrDefault(token, Collections.emptySet());
+    }
+
+    /**
+     * Ids of documents containing any token within maxDistance edits of the given token
+     */
+    public Set<Long> lookupFuzzy(String token, int maxDistance) {
+        return lookupAll(fuzzyTerms(token, maxDistance).keySet());
+    }
+
+    /**
+     * Indexed tokens within maxDistance edits of the given token, with their distance from it
+     */
+    public Map<String, Integer> fuzzyTerms(String token, int maxDistance) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (maxDistance <= 0) {
+            if (postings.containsKey(token)) {
+                terms.put(token, 0);
+            }
+            return terms;
+        }
+        for (String term : vocabulary.search(token, maxDistance)) {
+            // Dead terms linger in the BK-tree until the next compaction
+            if (postings.containsKey(term)) {
+                terms.put(term, EditDistance.damerauLevenshtein(token, term));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Ids of documents containing any of the given tokens
+     */
+    public Set<Long> lookupAll(Collection<String> tokens) {
+        Set<Long> result = new HashSet<>();
+        for (String token : tokens) {
+            result.addAll(lookup(token));
+        }
+        return result;
+    }
+
+    /**
+     * Number of documents containing the token
+     */
+    public int documentFrequency(String token) {
+        Set<Long> ids = postings.get(token);
+        return ids == null ? 0 : ids.size();
+    }
+
+    public int documentCount() {
+        return documentTokens.size();
+    }
+
+    private void compact() {
+        vocabulary.clear();
+        for (String token : postings.keySet()) {
+            vocabulary.add(token);
+        }
+        deadTerms = 0;
+    }
+}
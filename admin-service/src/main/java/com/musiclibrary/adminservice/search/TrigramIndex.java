@@ -0,0 +1,118 @@
+package com.musiclibrary.adminservice.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from lower-cased character trigrams to document ids, used to answer
+ * case-insensitive "contains" queries without scanning every document.
+ * Not thread-safe; callers are expected to guard access.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String> values = new HashMap<>();
+
+    public void add(Long id, String value) {
+        remove(id);
+        if (value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        values.put(id, normalized);
+        for (String gram : trigrams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    public void remove(Long id) {
+        String previous = values.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : trigrams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        values.clear();
+    }
+
+    /**
+     * Ids of all documents whose value contains the given term, ignoring case
+     */
+    public Set<Long> search(String term) {
+        Set<Long> result = new HashSet<>();
+        if (term == null) {
+            return result;
+        }
+        String needle = normalize(term);
+        if (needle.length() < GRAM) {
+            // Too short to form a trigram; fall back to scanning the in-memory values
+            for (Map.Entry<Long, String> entry : values.entrySet()) {
+                if (entry.getValue().contains(needle)) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return result;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> smallest = lists.get(0);
+        candidates:
+        for (Long id : smallest) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    continue candidates;
+                }
+            }
+            // Trigram hits may be out of order, so confirm the actual substring match
+            if (values.get(id).contains(needle)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
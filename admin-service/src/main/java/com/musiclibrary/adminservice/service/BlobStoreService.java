@@ -0,0 +1,236 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed audio storage. Files live at {@code blobs/ab/cd/<sha256>.<ext>} under the
+ * media root and songs reference them by digest, so identical uploads share one file.
+ *
+ * A blob's reference count is the number of songs carrying its digest. Storing a blob and
+ * attaching it to a song happen under the digest's lock, as does the zero-reference check
+ * before a delete, so a blob is never removed while a song is being pointed at it.
+ */
+@Service
+public class BlobStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStoreService.class);
+
+    private static final String BLOB_DIR = "blobs";
+    private static final int LOCK_STRIPES = 64;
+    private static final int HASH_BUFFER_SIZE = 256 * 1024;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private MediaStreamService mediaStreamService;
+
+    @Autowired
+    private WaveformService waveformService;
+
+    // Unreferenced blobs younger than this are left alone, covering uploads between store and attach
+    @Value("${media.blobs.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    public BlobStoreService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Moves {@code file} into the store, or discards it if a blob with the same content already
+     * exists, then runs {@code attach} with the stored blob while the digest is still locked.
+     */
+    public StoredBlob store(Path file, String extension, Consumer<StoredBlob> attach) throws IOException {
+        String hash = sha256(file);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path existing = find(hash);
+            StoredBlob blob;
+            if (existing != null) {
+                Files.delete(file);
+                // Restart the grace period so the GC cannot collect it before attach commits
+                Files.setLastModifiedTime(existing, FileTime.from(Instant.now()));
+                blob = new StoredBlob(hash, relativePath(existing), true);
+            } else {
+                Path target = directory(hash).resolve(hash + "." + extension);
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                blob = new StoredBlob(hash, relativePath(target), false);
+            }
+            attach.accept(blob);
+            return blob;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the blob if no song references it any more. Inside a transaction the check runs
+     * after commit, so it sees the change that dropped the reference.
+     */
+    public void release(String hash) {
+        if (hash == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnreferenced(hash, Instant.MAX);
+                }
+            });
+        } else {
+            deleteIfUnreferenced(hash, Instant.MAX);
+        }
+    }
+
+    /**
+     * Sweeps blobs no song references, e.g. after a crash between storing and attaching, or a
+     * release that never ran. Only blobs older than the grace period are collected.
+     */
+    @Scheduled(initialDelayString = "${media.blobs.gc-initial-delay-ms:300000}",
+            fixedDelayString = "${media.blobs.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        Path root = mediaStreamService.getRoot().resolve(BLOB_DIR);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(gcGraceMinutes));
+        List<Path> blobs;
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            blobs = files.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warn("Blob garbage collection failed to list {}: {}", root, e.getMessage());
+            return;
+        }
+        int deleted = 0;
+        for (Path blob : blobs) {
+            String name = blob.getFileName().toString();
+            int dot = name.indexOf('.');
+            String hash = dot < 0 ? name : name.substring(0, dot);
+            if (SHA256_HEX.matcher(hash).matches() && deleteIfUnreferenced(hash, cutoff)) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Garbage-collected {} unreferenced blobs", deleted);
+        }
+    }
+
+    private boolean deleteIfUnreferenced(String hash, Instant modifiedBefore) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path blob = find(hash);
+            if (blob == null || songRepository.countByContentHash(hash) > 0) {
+                return false;
+            }
+            if (Files.getLastModifiedTime(blob).toInstant().isAfter(modifiedBefore)) {
+                return false;
+            }
+            Files.delete(blob);
+            waveformService.deleteForHash(hash);
+            logger.debug("Deleted unreferenced blob {}", hash);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to delete blob {}: {}", hash, e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path find(String hash) throws IOException {
+        Path directory = directory(hash);
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (DirectoryStream<Path> matches = Files.newDirectoryStream(directory, hash + ".*")) {
+            for (Path match : matches) {
+                return match;
+            }
+        }
+        return null;
+    }
+
+    private Path directory(String hash) {
+        return mediaStreamService.getRoot().resolve(BLOB_DIR).resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+    }
+
+    private String relativePath(Path blob) {
+        return mediaStreamService.getRoot().relativize(blob).toString().replace('\\', '/');
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static class StoredBlob {
+        private final String hash;
+        private final String filePath;
+        private final boolean deduplicated;
+
+        StoredBlob(String hash, String filePath, boolean deduplicated) {
+            this.hash = hash;
+            this.filePath = filePath;
+            this.deduplicated = deduplicated;
+        }
+
+        public String getHash() { return hash; }
+        public String getFilePath() { return filePath; }
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+}
@@ -0,0 +1,241 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.dto.BrowseGroupDTO;
+import com.musiclibrary.adminservice.dto.BrowseGroupPageDTO;
+import com.musiclibrary.adminservice.dto.SongPageDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.repository.SongRepository;
+import com.musiclibrary.adminservice.repository.SongSort;
+import com.musiclibrary.adminservice.search.GroupIndex;
+import com.musiclibrary.adminservice.search.ReleaseIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Album, artist (singer) and new-release browse views over visible songs. Groups, counts,
+ * earliest release dates and the release-date order are maintained incrementally by
+ * {@link SongService} and the importer, so browse pages never run GROUP BY or range queries;
+ * only the songs on the page are loaded by id. Changes made inside a transaction are applied
+ * once it commits.
+ */
+@Service
+public class BrowseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowseService.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Lock-free to read; written under the write lock like the group indexes
+    private final ReleaseIndex releases = new ReleaseIndex();
+    private GroupIndex albums;
+    private GroupIndex artists;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    // Language tag used to order album, artist and song names
+    @Value("${browse.locale:en}")
+    private String locale;
+
+    @PostConstruct
+    void init() {
+        Collator collator = Collator.getInstance(Locale.forLanguageTag(locale));
+        albums = new GroupIndex(collator, Song::getAlbumName, GroupIndex.MemberOrder.RELEASE_DATE);
+        artists = new GroupIndex(collator, Song::getSinger, GroupIndex.MemberOrder.NAME);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Song> songs = songRepository.findByIsVisibleTrue();
+        lock.writeLock().lock();
+        try {
+            albums.clear();
+            artists.clear();
+            releases.clear();
+            for (Song song : songs) {
+                albums.add(song);
+                artists.add(song);
+                releases.add(song.getId(), song.getReleaseDate());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} albums and {} artists for browsing", albums.size(), artists.size());
+    }
+
+    public void index(Song song) {
+        indexAll(List.of(song));
+    }
+
+    /**
+     * Batch form of {@link #index(Song)}: one synchronization and one write lock for all the songs
+     */
+    public void indexAll(List<Song> songs) {
+        if (!songs.isEmpty()) {
+            afterCommit(() -> indexNow(songs));
+        }
+    }
+
+    public void remove(Long songId) {
+        afterCommit(() -> removeNow(songId));
+    }
+
+    private void indexNow(List<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            for (Song song : songs) {
+                if (Boolean.TRUE.equals(song.getIsVisible())) {
+                    albums.add(song);
+                    artists.add(song);
+                    releases.add(song.getId(), song.getReleaseDate());
+                } else {
+                    albums.remove(song.getId());
+                    artists.remove(song.getId());
+                    releases.remove(song.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeNow(Long songId) {
+        lock.writeLock().lock();
+        try {
+            albums.remove(songId);
+            artists.remove(songId);
+            releases.remove(songId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs the update once the surrounding transaction commits, or right away outside one
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    public BrowseGroupPageDTO getAlbums(String after, int limit) {
+        return page(albums, after, limit);
+    }
+
+    public BrowseGroupPageDTO getArtists(String after, int limit) {
+        return page(artists, after, limit);
+    }
+
+    /**
+     * Visible songs of the album ordered by release date then name, or null if there is no such album
+     */
+    public List<Song> getAlbumSongs(String name) {
+        return songs(albums, name);
+    }
+
+    /**
+     * Visible songs of the singer ordered by name, or null if there is no such artist
+     */
+    public List<Song> getArtistSongs(String name) {
+        return songs(artists, name);
+    }
+
+    /**
+     * Visible songs released between from and to (inclusive; either may be null), newest first
+     * unless ascending, as a keyset page continuing after the given cursor.
+     */
+    public SongPageDTO getReleases(LocalDate from, LocalDate to, boolean ascending, String after, int limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            SongCursor cursor = SongCursor.decode(after, SongSort.RELEASE_DATE, !ascending);
+            afterDate = (LocalDate) cursor.value;
+            afterId = cursor.id;
+        }
+        List<Long> ids = releases.range(from, to, !ascending, afterDate, afterId, limit + 1);
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+        List<Song> songs = findAllInOrder(ids);
+        // Songs hidden or deleted since the ids were read are skipped; the cursor follows the last one returned
+        String nextCursor = hasMore && !songs.isEmpty()
+                ? SongCursor.encode(SongSort.RELEASE_DATE, !ascending, songs.get(songs.size() - 1))
+                : null;
+        return new SongPageDTO(songs, nextCursor, hasMore && nextCursor != null);
+    }
+
+    private BrowseGroupPageDTO page(GroupIndex index, String after, int limit) {
+        List<GroupIndex.Group> groups;
+        List<BrowseGroupDTO> result;
+        lock.readLock().lock();
+        try {
+            groups = index.page(after, limit + 1);
+            result = groups.stream()
+                    .limit(limit)
+                    .map(g -> new BrowseGroupDTO(g.getName(), g.getSongCount(), g.getEarliestReleaseDate()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        boolean hasMore = groups.size() > limit;
+        String nextCursor = hasMore ? result.get(result.size() - 1).getName() : null;
+        return new BrowseGroupPageDTO(result, nextCursor, hasMore);
+    }
+
+    private List<Song> songs(GroupIndex index, String name) {
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            GroupIndex.Group group = index.get(name);
+            if (group == null) {
+                return null;
+            }
+            ids = group.getSongIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return findAllInOrder(ids);
+    }
+
+    // Songs hidden or deleted since the ids were read are dropped, so these public views never leak them
+    private List<Song> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Song> byId = songRepository.findAllById(ids).stream()
+                .filter(song -> Boolean.TRUE.equals(song.getIsVisible()))
+                .collect(Collectors.toMap(Song::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,125 @@
+package com.musiclibrary.adminservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catalog version counter plus a pre-serialized snapshot of the visible song list.
+ * Every song mutation bumps the version once it commits; the snapshot is rebuilt lazily
+ * on the first read after a bump, so steady-state reads are a version check and a byte copy.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Records a catalog change. Inside a transaction the bump is deferred until commit, so a
+     * concurrent rebuild can never cache pre-commit data under the new version.
+     */
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    public Snapshot visibleSongs() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == version.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            long target = version.get();
+            if (current != null && current.version == target) {
+                return current;
+            }
+            // Read the version before querying: a change committed mid-build leaves this snapshot stale, never wrong
+            current = build(target);
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private Snapshot build(long target) {
+        List<Song> songs = songRepository.findByIsVisibleTrue();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(songs);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            String etag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16) + "\"";
+            logger.debug("Built visible catalog snapshot v{}: {} songs, {} bytes ({} gzipped)",
+                    target, songs.size(), json.length, compressed.size());
+            return new Snapshot(target, json, compressed.toByteArray(), etag);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize visible songs", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Immutable serialized visible song list. The ETag is derived from the JSON content, so it
+     * stays valid across restarts; the gzip variant gets its own tag since its bytes differ.
+     */
+    public static class Snapshot {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+
+        Snapshot(long version, byte[] json, byte[] gzip, String etag) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.gzipEtag = etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        public long getVersion() { return version; }
+        public byte[] getJson() { return json; }
+        public byte[] getGzip() { return gzip; }
+        public String getEtag() { return etag; }
+        public String getGzipEtag() { return gzipEtag; }
+    }
+}
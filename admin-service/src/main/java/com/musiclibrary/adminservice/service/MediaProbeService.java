@@ -0,0 +1,183 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.entity.SongChangeType;
+import com.musiclibrary.adminservice.media.AudioInfo;
+import com.musiclibrary.adminservice.media.AudioProbe;
+import com.musiclibrary.adminservice.repository.SongRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills in duration, bitrate and sample rate from each song's audio file headers.
+ *
+ * Probes run on a fixed worker pool with a bounded queue. Submissions never block: when the
+ * queue is full the song is simply left for the periodic backlog sweep, which picks up every
+ * song whose current filePath has not been probed yet.
+ */
+@Service
+public class MediaProbeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaProbeService.class);
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private MediaStreamService mediaStreamService;
+
+    @Autowired
+    private SongChangeLogService songChangeLogService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WaveformService waveformService;
+
+    @Value("${media.probe.threads:4}")
+    private int threads;
+
+    @Value("${media.probe.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-probe-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a probe of the song's current file. Inside a transaction the probe is queued after
+     * commit, so the worker sees the committed row.
+     */
+    public void submit(Song song) {
+        Long id = song.getId();
+        String filePath = song.getFilePath();
+        if (id == null || filePath == null || filePath.isBlank()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(id, filePath);
+                }
+            });
+        } else {
+            enqueue(id, filePath);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${media.probe.sweep-initial-delay-ms:10000}",
+            fixedDelayString = "${media.probe.sweep-interval-ms:60000}")
+    public void sweepBacklog() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Song> backlog = songRepository.findUnprobed(PageRequest.of(0, capacity));
+        for (Song song : backlog) {
+            if (!enqueue(song.getId(), song.getFilePath())) {
+                break;
+            }
+        }
+        if (!backlog.isEmpty()) {
+            logger.info("Queued {} songs for media probing", backlog.size());
+        }
+    }
+
+    private boolean enqueue(Long id, String filePath) {
+        if (!queued.add(id)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    probe(id, filePath);
+                } finally {
+                    queued.remove(id);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            return false;
+        }
+    }
+
+    private void probe(Long id, String filePath) {
+        AudioInfo info = null;
+        Path file = mediaStreamService.resolve(filePath);
+        if (file == null) {
+            logger.warn("Audio file {} for song {} not found under media root", filePath, id);
+        } else {
+            try {
+                info = AudioProbe.probe(file);
+                if (info == null) {
+                    logger.warn("Unrecognized audio format for song {}: {}", id, file);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to probe audio for song {}: {}", id, e.getMessage());
+            }
+        }
+
+        // Failed probes are recorded too, so the sweep does not retry them until filePath changes
+        AudioInfo result = info;
+        Boolean updated = transactionTemplate.execute(status -> {
+            int rows = songRepository.updateMediaInfo(id, filePath,
+                    result == null ? null : result.getDurationSeconds(),
+                    result == null ? null : result.getBitrate(),
+                    result == null ? null : result.getSampleRate(),
+                    result == null ? null : (int) Math.max(1, Math.round(result.getDurationSeconds() / 60)));
+            if (rows > 0 && result != null) {
+                songChangeLogService.record(id, SongChangeType.UPDATED);
+                catalogSnapshotService.markChanged();
+            }
+            return rows > 0;
+        });
+        if (Boolean.TRUE.equals(updated) && result != null) {
+            logger.debug("Probed song {}: {}s, {} bps, {} Hz", id, result.getDurationSeconds(),
+                    result.getBitrate(), result.getSampleRate());
+            // New audio behind the song; precompute its waveform in the background as well
+            songRepository.findById(id).ifPresent(waveformService::submit);
+        }
+    }
+}
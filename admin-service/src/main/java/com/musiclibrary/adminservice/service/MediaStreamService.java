@@ -0,0 +1,110 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves song audio from the media root, paced to a per-request bandwidth limit. Bytes are
+ * read in 64 KiB chunks with {@link FileChannel#transferTo}; the target wraps the servlet
+ * output stream, so each chunk is still copied through a heap buffer rather than sent by the
+ * kernel from the page cache.
+ */
+@Service
+public class MediaStreamService {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Value("${media.root:./media}")
+    private String mediaRoot;
+
+    // Bytes per second for a single response; 0 disables the limit
+    @Value("${media.stream.max-bytes-per-second:1048576}")
+    private long maxBytesPerSecond;
+
+    private Path root;
+
+    @PostConstruct
+    void init() {
+        root = Paths.get(mediaRoot).toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * The song's audio file, or null when it has none or it does not exist. Paths are resolved
+     * against the media root and anything escaping it is rejected.
+     */
+    public Path resolve(Song song) {
+        return resolve(song.getFilePath());
+    }
+
+    public Path resolve(String filePath) {
+        if (filePath == null || filePath.isBlank()) {
+            return null;
+        }
+        Path file;
+        try {
+            file = root.resolve(filePath).normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code start} to the output stream. The limit is
+     * enforced per call by sleeping whenever the transfer runs ahead of the allowed rate.
+     */
+    public void transfer(Path file, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long begin = System.nanoTime();
+            long sent = 0;
+            while (sent < length) {
+                long written = channel.transferTo(start + sent, Math.min(CHUNK_SIZE, length - sent), target);
+                if (written <= 0) {
+                    // File shrank underneath us; the client sees a short body
+                    break;
+                }
+                sent += written;
+                throttle(begin, sent);
+            }
+            out.flush();
+        }
+    }
+
+    private void throttle(long begin, long sent) throws IOException {
+        if (maxBytesPerSecond <= 0) {
+            return;
+        }
+        long dueNanos = (long) (sent * 1e9 / maxBytesPerSecond);
+        long aheadMillis = (dueNanos - (System.nanoTime() - begin)) / 1_000_000L;
+        if (aheadMillis > 0) {
+            try {
+                Thread.sleep(aheadMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Stream interrupted");
+            }
+        }
+    }
+}
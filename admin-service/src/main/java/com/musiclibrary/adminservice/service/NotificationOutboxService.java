@@ -0,0 +1,206 @@
+package com.musiclibrary.adminservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musiclibrary.adminservice.entity.OutboxEvent;
+import com.musiclibrary.adminservice.entity.OutboxEventType;
+import com.musiclibrary.adminservice.entity.OutboxStatus;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for notifications. Callers enqueue events inside their own transaction,
+ * so an event exists if and only if the change that caused it committed; a background relay
+ * then delivers pending events to notification-service in batches, retrying with backoff.
+ * Assumes a single relay per database.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    private static final String NOTIFICATION_SERVICE = "http://notification-service/api/notifications";
+    private static final long MAX_BACKOFF_SECONDS = 600;
+    private static final int MAX_DIGEST_HIGHLIGHTS = 5;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNewSong(Song song) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("songName", song.getName());
+        payload.put("singer", song.getSinger());
+        payload.put("albumName", song.getAlbumName());
+        outboxEventRepository.save(new OutboxEvent(OutboxEventType.NEW_SONG, toJson(payload)));
+    }
+
+    /**
+     * Digest of songs added in bulk. Several digests due at once are delivered as one,
+     * with their counts summed and the first few highlights kept.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueNewSongsDigest(long count, List<String> highlights) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("count", count);
+        payload.put("highlights", highlights.size() <= MAX_DIGEST_HIGHLIGHTS
+                ? highlights : highlights.subList(0, MAX_DIGEST_HIGHLIGHTS));
+        outboxEventRepository.save(new OutboxEvent(OutboxEventType.NEW_SONGS_DIGEST, toJson(payload)));
+    }
+
+    /**
+     * Delivers due events oldest first. Each event is deleted on success; on failure it is
+     * rescheduled with exponential backoff and parked as FAILED after the maximum attempts.
+     * Due digest events are merged and delivered as a single notification.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:2000}")
+    public void relay() {
+        List<OutboxEvent> due = outboxEventRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        List<OutboxEvent> digests = new ArrayList<>();
+        for (OutboxEvent event : due) {
+            if (event.getEventType() == OutboxEventType.NEW_SONGS_DIGEST) {
+                digests.add(event);
+                continue;
+            }
+            try {
+                restTemplate.postForEntity(toUri(event), null, Void.class);
+                outboxEventRepository.delete(event);
+            } catch (Exception e) {
+                recordFailure(event, e);
+            }
+        }
+        if (!digests.isEmpty()) {
+            relayDigests(digests);
+        }
+    }
+
+    private void relayDigests(List<OutboxEvent> digests) {
+        try {
+            long count = 0;
+            List<String> highlights = new ArrayList<>();
+            for (OutboxEvent event : digests) {
+                Map<String, Object> payload = readPayload(event);
+                count += ((Number) payload.getOrDefault("count", 0)).longValue();
+                for (Object highlight : (List<?>) payload.getOrDefault("highlights", List.of())) {
+                    if (highlights.size() < MAX_DIGEST_HIGHLIGHTS) {
+                        highlights.add(String.valueOf(highlight));
+                    }
+                }
+            }
+            restTemplate.postForEntity(digestUri(count, highlights), null, Void.class);
+            outboxEventRepository.deleteAll(digests);
+        } catch (Exception e) {
+            for (OutboxEvent event : digests) {
+                recordFailure(event, e);
+            }
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(e.getMessage()));
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            logger.error("Giving up on outbox event {} ({}) after {} attempts: {}",
+                    event.getId(), event.getEventType(), attempts, e.getMessage());
+        } else {
+            long backoff = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(attempts, 20));
+            event.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+            logger.warn("Delivery of outbox event {} failed (attempt {}), retrying in {}s: {}",
+                    event.getId(), attempts, backoff, e.getMessage());
+        }
+        outboxEventRepository.save(event);
+    }
+
+    // Values travel as URI variables so they are fully encoded, including braces and '+'
+    private URI toUri(OutboxEvent event) throws JsonProcessingException {
+        Map<String, Object> payload = readPayload(event);
+        switch (event.getEventType()) {
+            case NEW_SONG:
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("songName", payload.get("songName"));
+                variables.put("singer", payload.get("singer"));
+                variables.put("albumName", payload.get("albumName"));
+                return UriComponentsBuilder.fromHttpUrl(NOTIFICATION_SERVICE + "/new-song")
+                        .queryParam("songName", "{songName}")
+                        .queryParam("singer", "{singer}")
+                        .queryParam("albumName", "{albumName}")
+                        .encode()
+                        .buildAndExpand(variables)
+                        .toUri();
+            case NEW_SONGS_DIGEST:
+                List<String> highlights = new ArrayList<>();
+                for (Object highlight : (List<?>) payload.getOrDefault("highlights", List.of())) {
+                    highlights.add(String.valueOf(highlight));
+                }
+                return digestUri(((Number) payload.getOrDefault("count", 0)).longValue(), highlights);
+            default:
+                throw new IllegalStateException("Unknown outbox event type: " + event.getEventType());
+        }
+    }
+
+    private URI digestUri(long count, List<String> highlights) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("count", count);
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(NOTIFICATION_SERVICE + "/new-songs")
+                .queryParam("count", "{count}");
+        for (int i = 0; i < highlights.size(); i++) {
+            builder.queryParam("highlights", "{highlight" + i + "}");
+            variables.put("highlight" + i, highlights.get(i));
+        }
+        return builder.encode().buildAndExpand(variables).toUri();
+    }
+
+    private Map<String, Object> readPayload(OutboxEvent event) throws JsonProcessingException {
+        return objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {});
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
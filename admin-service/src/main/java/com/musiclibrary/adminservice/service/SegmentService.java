@@ -0,0 +1,184 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.dto.SegmentDTO;
+import com.musiclibrary.adminservice.dto.SegmentManifestDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.media.SegmentCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segmented delivery of song audio. A file is cut into byte ranges of roughly fixed duration
+ * (from the probed average bitrate), and recently served segments are kept in an off-heap LRU
+ * cache so popular songs and prefetched next tracks start from memory rather than storage.
+ */
+@Service
+public class SegmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentService.class);
+
+    // Used when the song has not been probed and its bitrate is unknown
+    private static final long FALLBACK_SEGMENT_BYTES = 1024 * 1024;
+    private static final long MIN_SEGMENT_BYTES = 16 * 1024;
+    // Caps the manifest size whatever the duration says
+    private static final long MAX_SEGMENTS = 10_000;
+
+    private SegmentCache cache;
+    private ThreadPoolExecutor prefetcher;
+
+    @Autowired
+    private MediaStreamService mediaStreamService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.segments.duration-seconds:10}")
+    private int segmentSeconds;
+
+    @Value("${media.segments.cache-max-bytes:268435456}")
+    private long cacheMaxBytes;
+
+    @PostConstruct
+    void init() {
+        cache = new SegmentCache(cacheMaxBytes);
+        FunctionCounter.builder("media.segment.cache.requests", cache, SegmentCache::getHits)
+                .tag("result", "hit").description("Segment requests served from the cache").register(meterRegistry);
+        FunctionCounter.builder("media.segment.cache.requests", cache, SegmentCache::getMisses)
+                .tag("result", "miss").description("Segment requests read from storage").register(meterRegistry);
+        FunctionCounter.builder("media.segment.cache.evictions", cache, SegmentCache::getEvictions)
+                .register(meterRegistry);
+        Gauge.builder("media.segment.cache.size", cache, SegmentCache::getSizeBytes)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("media.segment.cache.entries", cache, SegmentCache::getEntryCount)
+                .register(meterRegistry);
+
+        prefetcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "segment-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        prefetcher.shutdownNow();
+    }
+
+    /**
+     * Segment layout of the song's file, or null when it has no file.
+     */
+    public SegmentManifestDTO manifest(Song song) throws IOException {
+        Path file = mediaStreamService.resolve(song);
+        if (file == null) {
+            return null;
+        }
+        long size = Files.size(file);
+        long segmentBytes = segmentBytes(song, size);
+        Double duration = probedDuration(song);
+        List<SegmentDTO> segments = new ArrayList<>();
+        for (long offset = 0, index = 0; offset < size; offset += segmentBytes, index++) {
+            long length = Math.min(segmentBytes, size - offset);
+            Double start = duration == null ? null : duration * offset / size;
+            Double segmentDuration = duration == null ? null : duration * length / size;
+            segments.add(new SegmentDTO((int) index, offset, length, start, segmentDuration));
+        }
+        String contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        return new SegmentManifestDTO(song.getId(), contentType, size, duration, segments);
+    }
+
+    /**
+     * The bytes of one segment as a read-only buffer, or null if the index is out of range.
+     */
+    public ByteBuffer segment(Song song, int index) throws IOException {
+        Path file = mediaStreamService.resolve(song);
+        if (file == null || index < 0) {
+            return null;
+        }
+        long size = Files.size(file);
+        long segmentBytes = segmentBytes(song, size);
+        long offset = index * segmentBytes;
+        if (offset >= size) {
+            return null;
+        }
+        String key = cacheKey(file, size, index);
+        ByteBuffer cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int length = (int) Math.min(segmentBytes, size - offset);
+        // Read straight into off-heap memory; the cache keeps this buffer without copying it
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        buffer.flip();
+        return cache.put(key, buffer);
+    }
+
+    /**
+     * Loads the song's first segment into the cache in the background, e.g. for the next track
+     * of a playlist. Dropped silently when the prefetch queue is full.
+     */
+    public void prefetch(Song song) {
+        try {
+            prefetcher.execute(() -> {
+                try {
+                    segment(song, 0);
+                } catch (IOException e) {
+                    logger.debug("Prefetch of song {} failed: {}", song.getId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Prefetch queue full, skipping song {}", song.getId());
+        }
+    }
+
+    private long segmentBytes(Song song, long size) {
+        Double duration = probedDuration(song);
+        long bytes = duration == null || duration <= 0
+                ? FALLBACK_SEGMENT_BYTES
+                : (long) Math.ceil(size / duration * segmentSeconds);
+        long minBytes = Math.max(MIN_SEGMENT_BYTES, (size + MAX_SEGMENTS - 1) / MAX_SEGMENTS);
+        return Math.min(Integer.MAX_VALUE, Math.max(minBytes, bytes));
+    }
+
+    // The duration probed from the file filePath points at now, or null while that file is unprobed
+    private static Double probedDuration(Song song) {
+        return Objects.equals(song.getProbedFilePath(), song.getFilePath()) ? song.getDurationSeconds() : null;
+    }
+
+    // The key changes whenever the file is replaced, so stale segments simply age out
+    private static String cacheKey(Path file, long size, int index) throws IOException {
+        return file + "|" + size + "|" + Files.getLastModifiedTime(file).toMillis() + "#" + index;
+    }
+}
@@ -0,0 +1,129 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.dto.SongChangeDTO;
+import com.musiclibrary.adminservice.dto.SongChangeFeedDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.entity.SongChange;
+import com.musiclibrary.adminservice.entity.SongChangeType;
+import com.musiclibrary.adminservice.repository.SongChangeRepository;
+import com.musiclibrary.adminservice.repository.SongRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only song change log behind the /api/songs/changes feed.
+ *
+ * Sequence numbers are handed out when a change is written, not when it commits, so a
+ * transaction holding a low number can commit after one holding a higher number. The feed
+ * therefore only reads up to the lowest sequence still in flight; a consumer that advances its
+ * cursor can never skip a change that commits later. Assumes a single admin-service instance.
+ */
+@Service
+public class SongChangeLogService {
+
+    private final TreeMap<Long, Integer> inFlight = new TreeMap<>();
+
+    @Autowired
+    private SongChangeRepository songChangeRepository;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long songId, SongChangeType type) {
+        recordAll(List.of(songId), type);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<Long> songIds, SongChangeType type) {
+        if (songIds.isEmpty()) {
+            return;
+        }
+        Long lowest;
+        // Allocation and registration are atomic with respect to the feed's watermark read
+        synchronized (inFlight) {
+            lowest = null;
+            for (Long songId : songIds) {
+                SongChange change = new SongChange(songId, type);
+                entityManager.persist(change);
+                if (lowest == null) {
+                    lowest = change.getId();
+                }
+            }
+            inFlight.merge(lowest, 1, Integer::sum);
+        }
+        Long registered = lowest;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (inFlight) {
+                    inFlight.computeIfPresent(registered, (id, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Committed changes after {@code since}, oldest first. Each entry carries the song's current
+     * state, so a page is also collapsed to the latest entry per song. Unless includeHidden is
+     * set, a song that is currently hidden is reported as a VISIBILITY_CHANGED tombstone.
+     */
+    @Transactional(readOnly = true)
+    public SongChangeFeedDTO getChanges(long since, int limit, boolean includeHidden) {
+        long watermark;
+        synchronized (inFlight) {
+            watermark = inFlight.isEmpty() ? Long.MAX_VALUE : inFlight.firstKey();
+        }
+        List<SongChange> changes = songChangeRepository.findByIdGreaterThanAndIdLessThanOrderByIdAsc(
+                since, watermark, PageRequest.of(0, limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        if (changes.isEmpty()) {
+            return new SongChangeFeedDTO(List.of(), since, false);
+        }
+        long nextSince = changes.get(changes.size() - 1).getId();
+
+        List<SongChange> latest = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            if (seen.add(changes.get(i).getSongId())) {
+                latest.add(changes.get(i));
+            }
+        }
+        Map<Long, Song> songs = songRepository.findAllById(seen).stream()
+                .collect(Collectors.toMap(Song::getId, Function.identity()));
+        List<SongChangeDTO> result = new ArrayList<>(latest.size());
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            SongChange change = latest.get(i);
+            SongChangeType type = change.getChangeType();
+            Song song = type == SongChangeType.DELETED ? null : songs.get(change.getSongId());
+            if (song != null && !includeHidden && !Boolean.TRUE.equals(song.getIsVisible())) {
+                type = SongChangeType.VISIBILITY_CHANGED;
+                song = null;
+            }
+            result.add(new SongChangeDTO(change.getId(), change.getSongId(), type, change.getChangedAt(), song));
+        }
+        return new SongChangeFeedDTO(result, nextSince, hasMore);
+    }
+}
@@ -0,0 +1,72 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.repository.SongSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key value and id of the last song on a page, tied to
+ * the sort and direction it was issued for so it cannot be replayed against another order.
+ */
+final class SongCursor {
+
+    final SongSort sort;
+    final boolean descending;
+    final Object value;
+    final Long id;
+
+    private SongCursor(SongSort sort, boolean descending, Object value, Long id) {
+        this.sort = sort;
+        this.descending = descending;
+        this.value = value;
+        this.id = id;
+    }
+
+    static String encode(SongSort sort, boolean descending, Song last) {
+        String value;
+        switch (sort) {
+            case RELEASE_DATE:
+                value = last.getReleaseDate().toString();
+                break;
+            case NAME:
+                value = last.getName();
+                break;
+            default:
+                value = "";
+        }
+        String raw = sort.name() + ":" + (descending ? "d" : "a") + ":" + last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SongCursor decode(String cursor, SongSort expectedSort, boolean expectedDescending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            SongSort sort = SongSort.valueOf(parts[0]);
+            boolean descending = "d".equals(parts[1]);
+            if (sort != expectedSort || descending != expectedDescending) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            Long id = Long.valueOf(parts[2]);
+            Object value;
+            switch (sort) {
+                case RELEASE_DATE:
+                    value = LocalDate.parse(parts[3]);
+                    break;
+                case NAME:
+                    value = parts[3];
+                    break;
+                default:
+                    value = id;
+            }
+            return new SongCursor(sort, descending, value, id);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
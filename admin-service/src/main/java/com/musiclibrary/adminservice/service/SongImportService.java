@@ -0,0 +1,304 @@
+package com.musiclibrary.adminservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musiclibrary.adminservice.dto.ImportErrorDTO;
+import com.musiclibrary.adminservice.dto.ImportReportDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.entity.SongChangeType;
+import com.musiclibrary.adminservice.importer.CsvFormatException;
+import com.musiclibrary.adminservice.importer.CsvReader;
+import com.musiclibrary.adminservice.search.SongFingerprint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk song import from CSV or NDJSON. Input is parsed one row at a time, rows are validated
+ * against the {@link Song} constraints, and valid rows are persisted in chunks so Hibernate can
+ * send them as JDBC batches with ids drawn from the pooled song sequence.
+ */
+@Service
+public class SongImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongImportService.class);
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int NOTIFICATION_HIGHLIGHTS = 5;
+
+    public enum Format { CSV, NDJSON }
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SongIndexService songIndexService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private SongChangeLogService songChangeLogService;
+
+    @Autowired
+    private MediaProbeService mediaProbeService;
+
+    @Autowired
+    private BrowseService browseService;
+
+    /**
+     * Imports every valid row. Rows duplicating an existing song or an earlier row of the same
+     * import are counted and, unless allowDuplicates is set, rejected.
+     */
+    public ImportReportDTO importSongs(InputStream in, Format format, boolean allowDuplicates) throws IOException {
+        ImportState state = new ImportState(allowDuplicates);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            readCsv(reader, state);
+        } else {
+            readNdjson(reader, state);
+        }
+        flush(state);
+
+        logger.info("Imported {} of {} songs ({} rejected)",
+                state.report.getImported(), state.report.getTotalRows(), state.report.getFailed());
+        return state.report;
+    }
+
+    // Malformed CSV ends the import at that point; rows before it are still imported and reported
+    private void readCsv(BufferedReader reader, ImportState state) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        long row = 0;
+        try {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+            }
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    Song song = new Song();
+                    song.setName(column(record, columns, "name"));
+                    song.setSinger(column(record, columns, "singer"));
+                    song.setMusicDirector(column(record, columns, "musicdirector"));
+                    song.setAlbumName(column(record, columns, "albumname"));
+                    String releaseDate = column(record, columns, "releasedate");
+                    song.setReleaseDate(releaseDate == null ? null : LocalDate.parse(releaseDate));
+                    String duration = column(record, columns, "durationminutes");
+                    song.setDurationMinutes(duration == null ? null : Integer.valueOf(duration));
+                    song.setFilePath(column(record, columns, "filepath"));
+                    String visible = column(record, columns, "isvisible");
+                    song.setIsVisible(visible == null || parseBoolean(visible));
+                    accept(row, song, state);
+                } catch (RuntimeException e) {
+                    reject(row, "Unparseable value: " + e.getMessage(), state);
+                }
+            }
+        } catch (CsvFormatException e) {
+            reject(row + 1, e.getMessage() + "; import stopped", state);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportState state) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                Song song = objectMapper.readValue(line, Song.class);
+                song.setId(null);
+                if (song.getIsVisible() == null) {
+                    song.setIsVisible(true);
+                }
+                accept(row, song, state);
+            } catch (JsonProcessingException e) {
+                reject(row, "Malformed JSON: " + e.getOriginalMessage(), state);
+            }
+        }
+    }
+
+    private void accept(long row, Song song, ImportState state) {
+        state.report.setTotalRows(state.report.getTotalRows() + 1);
+        Set<ConstraintViolation<Song>> violations = validator.validate(song);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            recordError(row, message, state);
+            return;
+        }
+        // Rows still in the pending chunk are not indexed yet, so they are tracked separately
+        String fingerprint = SongFingerprint.of(song);
+        Long duplicateId = songIndexService.findDuplicate(song);
+        if (duplicateId != null || !state.fingerprints.add(fingerprint)) {
+            state.report.setDuplicates(state.report.getDuplicates() + 1);
+            if (!state.allowDuplicates) {
+                recordError(row, duplicateId != null
+                        ? "Duplicate of song " + duplicateId
+                        : "Duplicate of an earlier row", state);
+                return;
+            }
+        }
+        state.chunk.add(song);
+        state.chunkRows.add(row);
+        if (state.chunk.size() >= CHUNK_SIZE) {
+            flush(state);
+        }
+    }
+
+    private void reject(long row, String message, ImportState state) {
+        state.report.setTotalRows(state.report.getTotalRows() + 1);
+        recordError(row, message, state);
+    }
+
+    private void recordError(long row, String message, ImportState state) {
+        ImportReportDTO report = state.report;
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(row, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // Persists the pending chunk in one transaction; with hibernate.jdbc.batch_size this is a handful of batched INSERTs.
+    // The chunk's digest notification commits with it, and the outbox relay merges the digests of an import.
+    // If the chunk fails as a whole, its rows are retried one per transaction so only the bad rows are rejected.
+    private void flush(ImportState state) {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+        List<Song> chunk = state.chunk;
+        List<Long> rows = state.chunkRows;
+        List<Song> saved;
+        try {
+            persist(chunk);
+            saved = chunk;
+        } catch (RuntimeException e) {
+            logger.warn("Import chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            saved = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Song song = chunk.get(i);
+                // The rolled-back attempt already assigned an id
+                song.setId(null);
+                try {
+                    persist(List.of(song));
+                    saved.add(song);
+                } catch (RuntimeException rowFailure) {
+                    recordError(rows.get(i), "Could not be saved: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage(), state);
+                }
+            }
+        }
+        for (Song song : saved) {
+            songIndexService.index(song);
+            browseService.index(song);
+            mediaProbeService.submit(song);
+        }
+        if (!saved.isEmpty()) {
+            catalogSnapshotService.markChanged();
+        }
+        state.report.setImported(state.report.getImported() + saved.size());
+        state.chunk = new ArrayList<>(CHUNK_SIZE);
+        state.chunkRows = new ArrayList<>(CHUNK_SIZE);
+        state.fingerprints.clear();
+    }
+
+    private void persist(List<Song> songs) {
+        List<String> highlights = songs.stream()
+                .limit(NOTIFICATION_HIGHLIGHTS)
+                .map(song -> song.getName() + " - " + song.getSinger())
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Song song : songs) {
+                entityManager.persist(song);
+            }
+            songChangeLogService.recordAll(songs.stream().map(Song::getId).collect(Collectors.toList()),
+                    SongChangeType.CREATED);
+            notificationOutboxService.enqueueNewSongsDigest(songs.size(), highlights);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("isVisible must be true or false, got '" + value + "'");
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static class ImportState {
+        final ImportReportDTO report = new ImportReportDTO();
+        // Fingerprints of the pending chunk; flushed rows are covered by the search index
+        final Set<String> fingerprints = new HashSet<>();
+        final boolean allowDuplicates;
+        List<Song> chunk = new ArrayList<>(CHUNK_SIZE);
+        // Input row number of each pending song, for errors found when the chunk is saved
+        List<Long> chunkRows = new ArrayList<>(CHUNK_SIZE);
+
+        ImportState(boolean allowDuplicates) {
+            this.allowDuplicates = allowDuplicates;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.repository.SongRepository;
+import com.musiclibrary.adminservice.search.Bm25Ranker;
+import com.musiclibrary.adminservice.search.FacetIndex;
+import com.musiclibrary.adminservice.search.PrefixTrie;
+import com.musiclibrary.adminservice.search.SearchHits;
+import com.musiclibrary.adminservice.search.SongField;
+import com.musiclibrary.adminservice.search.SongFingerprint;
+import com.musiclibrary.adminservice.search.TokenIndex;
+import com.musiclibrary.adminservice.search.Tokenizer;
+import com.musiclibrary.adminservice.search.TrigramIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the song catalog. Built once at startup and kept
+ * current by {@link SongService} on every mutation, so searches never scan the songs table.
+ * Mutations made inside a transaction are applied once it commits, so a rollback never
+ * leaves uncommitted songs searchable.
+ */
+@Service
+public class SongIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongIndexService.class);
+
+    private final Map<SongField, TrigramIndex> fieldIndexes = new EnumMap<>(SongField.class);
+    private final TokenIndex tokenIndex = new TokenIndex();
+    private final Bm25Ranker ranker = new Bm25Ranker();
+    private final FacetIndex facetIndex = new FacetIndex();
+    private final EnumMap<SongField, Double> boosts = new EnumMap<>(SongField.class);
+    private final Set<Long> visibleIds = new HashSet<>();
+    private final PrefixTrie suggestions = new PrefixTrie();
+    // Suggestion keys (and their display text) each visible song contributed, so they can be withdrawn later
+    private final Map<Long, Map<String, String>> suggestedValues = new HashMap<>();
+    // Normalized name+singer+album of every song, for duplicate checks without a table scan
+    private final Map<String, Set<Long>> fingerprints = new HashMap<>();
+    private final Map<Long, String> fingerprintOf = new HashMap<>();
+    // Fingerprints of songs indexed by transactions that have not completed yet
+    private final Map<String, Set<Long>> pendingFingerprints = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Value("${search.boost.name:3.0}")
+    private double nameBoost;
+
+    @Value("${search.boost.singer:2.0}")
+    private double singerBoost;
+
+    @Value("${search.boost.music-director:1.0}")
+    private double musicDirectorBoost;
+
+    @Value("${search.boost.album:1.5}")
+    private double albumBoost;
+
+    public SongIndexService() {
+        for (SongField field : SongField.values()) {
+            fieldIndexes.put(field, new TrigramIndex());
+        }
+    }
+
+    @PostConstruct
+    void initBoosts() {
+        boosts.put(SongField.NAME, nameBoost);
+        boosts.put(SongField.SINGER, singerBoost);
+        boosts.put(SongField.MUSIC_DIRECTOR, musicDirectorBoost);
+        boosts.put(SongField.ALBUM, albumBoost);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Song> songs = songRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            fieldIndexes.values().forEach(TrigramIndex::clear);
+            tokenIndex.clear();
+            ranker.clear();
+            facetIndex.clear();
+            visibleIds.clear();
+            suggestions.clear();
+            suggestedValues.clear();
+            fingerprints.clear();
+            fingerprintOf.clear();
+            for (Song song : songs) {
+                addInternal(song);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} songs for search", songs.size());
+    }
+
+    /**
+     * Adds or re-indexes the song; inside a transaction this happens after commit. Until the
+     * transaction completes, the song's fingerprint is held as pending so duplicate checks
+     * still see it.
+     */
+    public void index(Song song) {
+        indexAll(List.of(song));
+    }
+
+    /**
+     * Batch form of {@link #index(Song)}: one synchronization and one write lock for all the songs
+     */
+    public void indexAll(List<Song> songs) {
+        if (songs.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexNow(songs);
+            return;
+        }
+        Map<Long, String> pending = new HashMap<>();
+        for (Song song : songs) {
+            pending.put(song.getId(), SongFingerprint.of(song));
+        }
+        updatePending(pending, true);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexNow(songs);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                updatePending(pending, false);
+            }
+        });
+    }
+
+    /**
+     * Drops the song from the index; inside a transaction this happens after commit
+     */
+    public void remove(Long songId) {
+        afterCommit(() -> removeNow(songId));
+    }
+
+    private void indexNow(List<Song> songs) {
+        lock.writeLock().lock();
+        try {
+            for (Song song : songs) {
+                addInternal(song);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeNow(Long songId) {
+        lock.writeLock().lock();
+        try {
+            for (TrigramIndex index : fieldIndexes.values()) {
+                index.remove(songId);
+            }
+            tokenIndex.remove(songId);
+            ranker.remove(songId);
+            facetIndex.remove(songId);
+            visibleIds.remove(songId);
+            withdrawSuggestions(songId);
+            withdrawFingerprint(songId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The best {@code limit} visible songs where any field contains the term, ranked by BM25
+     * with the configured field boosts. With a positive {@code facetLimit}, also counts the most
+     * frequent facet values across all matches.
+     */
+    public SearchHits search(String term, int limit, int facetLimit) {
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = new HashSet<>();
+            for (TrigramIndex index : fieldIndexes.values()) {
+                matches.addAll(index.search(term));
+            }
+            matches.retainAll(visibleIds);
+            return hits(matches, term, boosts, limit, facetLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The best {@code limit} songs (visible or not) where the given field contains the term
+     */
+    public SearchHits search(SongField field, String term, int limit, int facetLimit) {
+        lock.readLock().lock();
+        try {
+            EnumMap<SongField, Double> fieldOnly = new EnumMap<>(SongField.class);
+            fieldOnly.put(field, 1.0);
+            return hits(fieldIndexes.get(field).search(term), term, fieldOnly, limit, facetLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The best {@code limit} visible songs matching every word of the term within
+     * maxDistance edits (Damerau-Levenshtein). Short words get a tighter bound:
+     * exact for up to two characters and at most one edit for up to five. Matches are ranked
+     * on the indexed words the query words resolved to, discounted by their edit distance.
+     */
+    public SearchHits fuzzySearch(String term, int maxDistance, int limit, int facetLimit) {
+        List<String> queryTokens = Tokenizer.tokenize(term);
+        if (queryTokens.isEmpty()) {
+            return SearchHits.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = null;
+            // The vocabulary terms each query word resolved to, so ranking scores what actually matched
+            List<Map<String, Double>> queryTerms = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                Map<String, Integer> terms = tokenIndex.fuzzyTerms(token, distanceFor(token, maxDistance));
+                Set<Long> tokenMatches = tokenIndex.lookupAll(terms.keySet());
+                if (matches == null) {
+                    matches = tokenMatches;
+                } else {
+                    matches.retainAll(tokenMatches);
+                }
+                if (matches.isEmpty()) {
+                    return SearchHits.empty();
+                }
+                Map<String, Double> weights = new HashMap<>();
+                terms.forEach((alternative, distance) -> weights.put(alternative, 1.0 / (1 + distance)));
+                queryTerms.add(weights);
+            }
+            matches.retainAll(visibleIds);
+            List<Long> ranked = ranker.topKExpanded(matches, queryTerms, boosts, tokenIndex::documentFrequency, limit);
+            return new SearchHits(ranked, matches.size(),
+                    facetLimit > 0 ? facetIndex.count(matches, facetLimit) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top weighted completions across song names, singers, albums and music directors.
+     * The weight of a completion is the number of visible songs carrying that value.
+     */
+    public List<PrefixTrie.Completion> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return suggestions.complete(suggestionKey(prefix), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Id of another song with the same fingerprint as this one, or null if there is none.
+     * Songs indexed by transactions still in flight count as well.
+     */
+    public Long findDuplicate(Song song) {
+        String fingerprint = SongFingerprint.of(song);
+        lock.readLock().lock();
+        try {
+            Long duplicateId = otherThan(fingerprints.get(fingerprint), song.getId());
+            return duplicateId != null ? duplicateId : otherThan(pendingFingerprints.get(fingerprint), song.getId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Long otherThan(Set<Long> ids, Long songId) {
+        if (ids == null) {
+            return null;
+        }
+        for (Long id : ids) {
+            if (!id.equals(songId)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private void updatePending(Map<Long, String> fingerprintsById, boolean add) {
+        lock.writeLock().lock();
+        try {
+            fingerprintsById.forEach((songId, fingerprint) -> {
+                if (add) {
+                    pendingFingerprints.computeIfAbsent(fingerprint, key -> new HashSet<>()).add(songId);
+                    return;
+                }
+                Set<Long> ids = pendingFingerprints.get(fingerprint);
+                if (ids != null && ids.remove(songId) && ids.isEmpty()) {
+                    pendingFingerprints.remove(fingerprint);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs the index update once the surrounding transaction commits, or right away outside one
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private void addInternal(Song song) {
+        for (SongField field : SongField.values()) {
+            fieldIndexes.get(field).add(song.getId(), field.valueOf(song));
+        }
+        List<String> tokens = new ArrayList<>();
+        Map<SongField, List<String>> fieldTokens = new EnumMap<>(SongField.class);
+        for (SongField field : SongField.values()) {
+            List<String> valueTokens = Tokenizer.tokenize(field.valueOf(song));
+            fieldTokens.put(field, valueTokens);
+            tokens.addAll(valueTokens);
+        }
+        tokenIndex.add(song.getId(), tokens);
+        ranker.add(song.getId(), fieldTokens);
+        facetIndex.add(song);
+        withdrawSuggestions(song.getId());
+        withdrawFingerprint(song.getId());
+        String fingerprint = SongFingerprint.of(song);
+        fingerprints.computeIfAbsent(fingerprint, key -> new HashSet<>()).add(song.getId());
+        fingerprintOf.put(song.getId(), fingerprint);
+        if (Boolean.TRUE.equals(song.getIsVisible())) {
+            visibleIds.add(song.getId());
+            contributeSuggestions(song);
+        } else {
+            visibleIds.remove(song.getId());
+        }
+    }
+
+    private void contributeSuggestions(Song song) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (SongField field : SongField.values()) {
+            String value = field.valueOf(song);
+            if (value != null && !value.isBlank()) {
+                values.putIfAbsent(suggestionKey(value), value.trim());
+            }
+        }
+        values.forEach((key, text) -> suggestions.adjust(key, text, 1));
+        suggestedValues.put(song.getId(), values);
+    }
+
+    private void withdrawSuggestions(Long songId) {
+        Map<String, String> values = suggestedValues.remove(songId);
+        if (values != null) {
+            values.forEach((key, text) -> suggestions.adjust(key, text, -1));
+        }
+    }
+
+    private void withdrawFingerprint(Long songId) {
+        String fingerprint = fingerprintOf.remove(songId);
+        if (fingerprint == null) {
+            return;
+        }
+        Set<Long> ids = fingerprints.get(fingerprint);
+        ids.remove(songId);
+        if (ids.isEmpty()) {
+            fingerprints.remove(fingerprint);
+        }
+    }
+
+    private static int distanceFor(String token, int maxDistance) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? Math.min(maxDistance, 1) : maxDistance;
+    }
+
+    private static String suggestionKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private SearchHits hits(Set<Long> matches, String term, EnumMap<SongField, Double> fieldBoosts,
+                            int limit, int facetLimit) {
+        List<Long> ranked = ranker.topK(matches, Tokenizer.tokenize(term), fieldBoosts,
+                tokenIndex::documentFrequency, limit);
+        return new SearchHits(ranked, matches.size(),
+                facetLimit > 0 ? facetIndex.count(matches, facetLimit) : null);
+    }
+}
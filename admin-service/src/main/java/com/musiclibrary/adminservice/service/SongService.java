@@ -1,47 +1,136 @@
 package com.musiclibrary.adminservice.service;
 
+import com.musiclibrary.adminservice.dto.FacetCountDTO;
+import com.musiclibrary.adminservice.dto.SongBulkUpdateDTO;
+import com.musiclibrary.adminservice.dto.SongDTO;
+import com.musiclibrary.adminservice.dto.SongFilterDTO;
+import com.musiclibrary.adminservice.dto.SongPatchDTO;
+import com.musiclibrary.adminservice.dto.SearchResultDTO;
+import com.musiclibrary.adminservice.dto.SongPageDTO;
+import com.musiclibrary.adminservice.dto.SuggestionDTO;
+import com.musiclibrary.adminservice.dto.VisibleSongIdsDTO;
 import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.entity.SongChangeType;
+import com.musiclibrary.adminservice.exception.DuplicateResourceException;
 import com.musiclibrary.adminservice.exception.SongNotFoundException;
+import com.musiclibrary.adminservice.mapper.SongMapper;
 import com.musiclibrary.adminservice.repository.SongRepository;
+import com.musiclibrary.adminservice.repository.SongSort;
+import com.musiclibrary.adminservice.search.Facet;
+import com.musiclibrary.adminservice.search.FacetIndex;
+import com.musiclibrary.adminservice.search.SearchHits;
+import com.musiclibrary.adminservice.search.SongField;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SongService {
     
+    private static final int DEFAULT_FUZZY_DISTANCE = 2;
+    private static final int MAX_FUZZY_DISTANCE = 2;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int REINDEX_BATCH_SIZE = 500;
+    private static final int MAX_BULK_IDS = 1000;
+    
     @Autowired
     private SongRepository songRepository;
     
     @Autowired
-    private RestTemplate restTemplate;
+    private NotificationOutboxService notificationOutboxService;
     
+    @Autowired
+    private SongIndexService songIndexService;
     
-    public Song createSong(Song song) {
-        Song saved = songRepository.save(song);
-        
-        // Send synchronous notification
-        try {
-            String url = "http://notification-service/api/notifications/new-song?songName="
-                    + encode(saved.getName()) + "&singer=" + encode(saved.getSinger()) 
-                    + "&albumName=" + encode(saved.getAlbumName());
-            restTemplate.postForEntity(url, null, Void.class);
-        } catch (Exception ignored) {}
-        
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+    
+    @Autowired
+    private SongChangeLogService songChangeLogService;
+    
+    @Autowired
+    private MediaProbeService mediaProbeService;
+    
+    @Autowired
+    private BlobStoreService blobStoreService;
+    
+    @Autowired
+    private BrowseService browseService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    
+    /**
+     * Saves a new song. Unless allowDuplicate is set, a song whose name, singer and album match
+     * an existing one after normalization is rejected with {@link DuplicateResourceException}.
+     */
+    @Transactional
+    public Song createSong(Song song, boolean allowDuplicate) {
+        Long duplicateId = songIndexService.findDuplicate(song);
+        if (duplicateId != null && !allowDuplicate) {
+            throw new DuplicateResourceException("Song already exists with id: " + duplicateId);
+        }
+        Song saved = songRepository.saveAndFlush(song);
+        // Delivered asynchronously by the outbox relay once this transaction commits
+        notificationOutboxService.enqueueNewSong(saved);
+        songChangeLogService.record(saved.getId(), SongChangeType.CREATED);
+        songIndexService.index(saved);
+        browseService.index(saved);
+        catalogSnapshotService.markChanged();
+        mediaProbeService.submit(saved);
         return saved;
     }
-
-    private String encode(String s) {
-        try { return java.net.URLEncoder.encode(s == null ? "" : s, java.nio.charset.StandardCharsets.UTF_8); }
-        catch (Exception e) { return s; }
-    }
     
     public Song getSongById(Long id) {
         return songRepository.findById(id)
                 .orElseThrow(() -> new SongNotFoundException("Song not found with id: " + id));
     }
     
+    /**
+     * The requested songs in request order, fetched with one query. Unknown ids (and hidden
+     * songs unless includeHidden is set) are left out.
+     */
+    public List<SongDTO> getSongsByIds(List<Long> ids, boolean includeHidden) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        return findAllInOrder(distinct).stream()
+                .filter(song -> includeHidden || Boolean.TRUE.equals(song.getIsVisible()))
+                .map(SongMapper::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Ids of all visible songs, with the highest committed song id read just before them. Ids come
+     * from a pooled sequence and imports hold a chunk of ids until the chunk commits, so a song
+     * committed after this snapshot may still have an id somewhat below the max id.
+     */
+    @Transactional(readOnly = true)
+    public VisibleSongIdsDTO getVisibleSongIds() {
+        Long maxId = songRepository.findMaxId();
+        return new VisibleSongIdsDTO(maxId == null ? 0 : maxId, songRepository.findVisibleIds());
+    }
+    
     public List<Song> getAllSongs() {
         return songRepository.findAll();
     }
@@ -50,26 +139,127 @@ public class SongService {
         return songRepository.findByIsVisibleTrue();
     }
     
-    public List<Song> searchSongs(String searchTerm) {
-        return songRepository.searchSongs(searchTerm);
+    /**
+     * Writes every song as one JSON object per line. Rows come from a database cursor and are
+     * detached as soon as they are written, so memory stays flat regardless of catalog size.
+     */
+    @Transactional(readOnly = true)
+    public long exportSongs(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        long count = 0;
+        try (Stream<Song> songs = songRepository.streamAllOrderedById()) {
+            Iterator<Song> iterator = songs.iterator();
+            while (iterator.hasNext()) {
+                Song song = iterator.next();
+                out.write(writer.writeValueAsBytes(song));
+                out.write('\n');
+                entityManager.detach(song);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+    
+    /**
+     * Keyset page of songs. Each page seeks directly past the previous cursor using the
+     * (sort key, id) indexes, so deep pages cost the same as the first one.
+     */
+    public SongPageDTO getSongPage(boolean visibleOnly, String sortBy, String direction, String after, int limit) {
+        SongSort sort = SongSort.fromProperty(sortBy);
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        Object afterValue = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            SongCursor cursor = SongCursor.decode(after, sort, descending);
+            afterValue = cursor.value;
+            afterId = cursor.id;
+        }
+        
+        List<Song> songs = songRepository.findPage(visibleOnly, sort, descending, afterValue, afterId, pageSize + 1);
+        boolean hasMore = songs.size() > pageSize;
+        if (hasMore) {
+            songs = songs.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? SongCursor.encode(sort, descending, songs.get(songs.size() - 1)) : null;
+        return new SongPageDTO(songs, nextCursor, hasMore);
     }
     
-    public List<Song> searchSongsByName(String name) {
-        return songRepository.findByNameContainingIgnoreCase(name);
+    /**
+     * Search visible songs, best BM25 matches first. With a fuzzy distance, matches words within
+     * that many edits; otherwise runs an exact search and falls back to fuzzy matching when nothing is found.
+     * Facet counts cover every match, not just the returned page, and are only computed when facetLimit is positive.
+     */
+    public SearchResultDTO searchSongs(String searchTerm, Integer fuzzy, Integer limit, int facetLimit) {
+        int max = maxResults(limit);
+        SearchHits hits;
+        if (fuzzy != null) {
+            int distance = Math.max(1, Math.min(fuzzy, MAX_FUZZY_DISTANCE));
+            hits = songIndexService.fuzzySearch(searchTerm, distance, max, facetLimit);
+        } else {
+            hits = songIndexService.search(searchTerm, max, facetLimit);
+            if (hits.isEmpty()) {
+                hits = songIndexService.fuzzySearch(searchTerm, DEFAULT_FUZZY_DISTANCE, max, facetLimit);
+            }
+        }
+        return toResult(hits);
     }
     
-    public List<Song> searchSongsBySinger(String singer) {
-        return songRepository.findBySingerContainingIgnoreCase(singer);
+    public SearchResultDTO searchSongsByName(String name, Integer limit, int facetLimit) {
+        return toResult(songIndexService.search(SongField.NAME, name, maxResults(limit), facetLimit));
     }
     
-    public List<Song> searchSongsByMusicDirector(String musicDirector) {
-        return songRepository.findByMusicDirectorContainingIgnoreCase(musicDirector);
+    public SearchResultDTO searchSongsBySinger(String singer, Integer limit, int facetLimit) {
+        return toResult(songIndexService.search(SongField.SINGER, singer, maxResults(limit), facetLimit));
     }
     
-    public List<Song> searchSongsByAlbum(String albumName) {
-        return songRepository.findByAlbumNameContainingIgnoreCase(albumName);
+    public SearchResultDTO searchSongsByMusicDirector(String musicDirector, Integer limit, int facetLimit) {
+        return toResult(songIndexService.search(SongField.MUSIC_DIRECTOR, musicDirector, maxResults(limit), facetLimit));
     }
     
+    public SearchResultDTO searchSongsByAlbum(String albumName, Integer limit, int facetLimit) {
+        return toResult(songIndexService.search(SongField.ALBUM, albumName, maxResults(limit), facetLimit));
+    }
+    
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return songIndexService.suggest(prefix, limit).stream()
+                .map(c -> new SuggestionDTO(c.getText(), c.getWeight()))
+                .collect(Collectors.toList());
+    }
+    
+    private SearchResultDTO toResult(SearchHits hits) {
+        Map<String, List<FacetCountDTO>> facets = null;
+        if (hits.getFacets() != null) {
+            facets = new LinkedHashMap<>();
+            for (Map.Entry<Facet, List<FacetIndex.FacetCount>> entry : hits.getFacets().entrySet()) {
+                facets.put(entry.getKey().getKey(), entry.getValue().stream()
+                        .map(c -> new FacetCountDTO(c.getValue(), c.getCount()))
+                        .collect(Collectors.toList()));
+            }
+        }
+        return new SearchResultDTO(findAllInOrder(hits.getIds()), hits.getTotalMatches(), facets);
+    }
+    
+    private static int maxResults(Integer limit) {
+        return limit == null ? Integer.MAX_VALUE : Math.max(limit, 0);
+    }
+    
+    // Loads the matched songs by primary key, preserving the order the index returned them in
+    private List<Song> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Song> byId = songRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Song::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional
     public Song updateSong(Long id, Song songDetails) {
         Song song = getSongById(id);
         
@@ -79,20 +269,164 @@ public class SongService {
         song.setReleaseDate(songDetails.getReleaseDate());
         song.setAlbumName(songDetails.getAlbumName());
         song.setDurationMinutes(songDetails.getDurationMinutes());
-        song.setFilePath(songDetails.getFilePath());
         song.setIsVisible(songDetails.getIsVisible());
+        boolean fileChanged = !Objects.equals(song.getFilePath(), songDetails.getFilePath());
+        String releasedHash = null;
+        if (fileChanged) {
+            // A hand-set path is outside the blob store
+            releasedHash = song.getContentHash();
+            song.setFilePath(songDetails.getFilePath());
+            song.setContentHash(null);
+            song.setDurationSeconds(null);
+            song.setBitrate(null);
+            song.setSampleRate(null);
+        }
+        
+        Song saved = songRepository.save(song);
+        songChangeLogService.record(id, SongChangeType.UPDATED);
+        songIndexService.index(saved);
+        browseService.index(saved);
+        catalogSnapshotService.markChanged();
+        if (fileChanged) {
+            mediaProbeService.submit(saved);
+            blobStoreService.release(releasedHash);
+        }
+        return saved;
+    }
+    
+    /**
+     * Points the song at a blob-store audio file and queues it for probing, even when the
+     * path is unchanged (the file behind it may be new). The caller releases the previous blob.
+     */
+    @Transactional
+    public Song attachAudioFile(Long id, String filePath, String contentHash) {
+        Song song = getSongById(id);
+        song.setFilePath(filePath);
+        song.setContentHash(contentHash);
+        song.setDurationSeconds(null);
+        song.setBitrate(null);
+        song.setSampleRate(null);
+        song.setProbedFilePath(null);
+        Song saved = songRepository.save(song);
+        songChangeLogService.record(id, SongChangeType.UPDATED);
+        catalogSnapshotService.markChanged();
+        mediaProbeService.submit(saved);
+        return saved;
+    }
+    
+    /**
+     * Applies one patch to every song selected by id list (at most {@value #MAX_BULK_IDS} ids) or
+     * filter with a single UPDATE statement. The search index, change log and catalog version are
+     * brought up to date once for the whole set. Returns the number of songs updated.
+     */
+    @Transactional
+    public int bulkUpdate(SongBulkUpdateDTO request) {
+        Map<String, Object> changes = patchChanges(request.getPatch());
+        SongFilterDTO filter = request.getFilter();
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (hasIds == (filter != null)) {
+            throw new IllegalArgumentException("Provide either ids or filter");
+        }
+        List<Long> ids;
+        int updated;
+        if (hasIds) {
+            ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            if (ids.size() > MAX_BULK_IDS) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids per request; use a filter for larger sets");
+            }
+            updated = songRepository.updateAll(ids, changes);
+        } else {
+            // The filter goes into the UPDATE itself; the rows it changed are then found by the
+            // updatedAt it stamped, which their row locks keep until commit
+            LocalDateTime stamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            updated = songRepository.updateMatching(filterCriteria(filter), changes, stamp);
+            ids = updated == 0 ? List.of() : songRepository.findIdsByUpdatedAt(stamp);
+        }
+        if (updated == 0) {
+            return 0;
+        }
         
-        return songRepository.save(song);
+        // The UPDATE bypassed the persistence context; reload the new state in batches. Each batch
+        // reaches the search and browse indexes in one step once the transaction commits
+        entityManager.clear();
+        List<Long> updatedIds = new ArrayList<>(updated);
+        for (int from = 0; from < ids.size(); from += REINDEX_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + REINDEX_BATCH_SIZE, ids.size()));
+            List<Song> songs = songRepository.findAllById(batch);
+            songIndexService.indexAll(songs);
+            browseService.indexAll(songs);
+            songs.forEach(song -> updatedIds.add(song.getId()));
+            entityManager.clear();
+        }
+        boolean visibilityOnly = changes.size() == 1 && changes.containsKey("isVisible");
+        songChangeLogService.recordAll(updatedIds, visibilityOnly ? SongChangeType.VISIBILITY_CHANGED : SongChangeType.UPDATED);
+        catalogSnapshotService.markChanged();
+        return updated;
+    }
+    
+    private static Map<String, Object> filterCriteria(SongFilterDTO filter) {
+        Map<String, Object> criteria = new LinkedHashMap<>();
+        criteria.put("albumName", filter.getAlbumName());
+        criteria.put("singer", filter.getSinger());
+        criteria.put("musicDirector", filter.getMusicDirector());
+        criteria.put("isVisible", filter.getIsVisible());
+        criteria.values().removeIf(Objects::isNull);
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Filter must set at least one field");
+        }
+        return criteria;
+    }
+    
+    private static Map<String, Object> patchChanges(SongPatchDTO patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("patch is required");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (patch.getIsVisible() != null) {
+            changes.put("isVisible", patch.getIsVisible());
+        }
+        putText(changes, "albumName", patch.getAlbumName());
+        putText(changes, "singer", patch.getSinger());
+        putText(changes, "musicDirector", patch.getMusicDirector());
+        if (patch.getReleaseDate() != null) {
+            changes.put("releaseDate", patch.getReleaseDate());
+        }
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("patch must set at least one field");
+        }
+        return changes;
     }
     
+    private static void putText(Map<String, Object> changes, String attribute, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.isBlank()) {
+            throw new IllegalArgumentException(attribute + " must not be blank");
+        }
+        changes.put(attribute, value.trim());
+    }
+    
+    @Transactional
     public void deleteSong(Long id) {
         Song song = getSongById(id);
         songRepository.delete(song);
+        songChangeLogService.record(id, SongChangeType.DELETED);
+        songIndexService.remove(id);
+        browseService.remove(id);
+        catalogSnapshotService.markChanged();
+        blobStoreService.release(song.getContentHash());
     }
     
+    @Transactional
     public Song toggleSongVisibility(Long id) {
         Song song = getSongById(id);
         song.setIsVisible(!song.getIsVisible());
-        return songRepository.save(song);
+        Song saved = songRepository.save(song);
+        songChangeLogService.record(id, SongChangeType.VISIBILITY_CHANGED);
+        songIndexService.index(saved);
+        browseService.index(saved);
+        catalogSnapshotService.markChanged();
+        return saved;
     }
 }
@@ -0,0 +1,179 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.dto.UploadStatusDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.exception.UploadOffsetMismatchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Resumable chunked upload of song audio. Chunks are appended to a part file under
+ * {@code <media.root>/.uploads}, whose size is the upload's progress, so an interrupted upload
+ * resumes from wherever the part file ends, even across restarts. Each chunk is streamed
+ * straight into the file channel and checked against the client's CRC32C before it is kept.
+ */
+@Service
+public class SongUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongUploadService.class);
+
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+    private static final String UPLOAD_DIR = ".uploads";
+
+    @Autowired
+    private SongService songService;
+
+    @Autowired
+    private MediaStreamService mediaStreamService;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Value("${media.upload.max-chunk-bytes:16777216}")
+    private long maxChunkBytes;
+
+    @Value("${media.upload.max-file-bytes:2147483648}")
+    private long maxFileBytes;
+
+    public UploadStatusDTO getStatus(Long songId, long total) throws IOException {
+        Song song = songService.getSongById(songId);
+        Path part = partFile(song.getId(), total);
+        long offset = Files.exists(part) ? Files.size(part) : 0;
+        return new UploadStatusDTO(song.getId(), offset, total, false, null);
+    }
+
+    /**
+     * Appends one chunk at {@code offset}. The offset must equal the bytes received so far;
+     * otherwise nothing is written and the expected offset is reported back. The chunk that
+     * brings the upload to {@code total} bytes moves the file into place and attaches it to the song.
+     */
+    public UploadStatusDTO receiveChunk(Long songId, long offset, long total, String filename, long crc32c,
+                                        InputStream body) throws IOException {
+        Song song = songService.getSongById(songId);
+        if (total <= 0 || total > maxFileBytes) {
+            throw new IllegalArgumentException("total must be between 1 and " + maxFileBytes + " bytes");
+        }
+        // A chunk at total carries nothing; rejecting it here keeps it from recreating the part file
+        if (offset < 0 || offset >= total) {
+            throw new IllegalArgumentException("offset must be at least 0 and less than total");
+        }
+        String extension = extension(filename);
+
+        Path part = partFile(song.getId(), total);
+        Files.createDirectories(part.getParent());
+        if (offset == 0) {
+            discardOtherParts(song.getId(), part);
+        }
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = tryLock(channel)) {
+            if (lock == null) {
+                throw new UploadOffsetMismatchException("Another chunk for this upload is in progress", channel.size());
+            }
+            long received = channel.size();
+            if (offset != received) {
+                throw new UploadOffsetMismatchException("Upload is at offset " + received + ", not " + offset, received);
+            }
+
+            long limit = Math.min(maxChunkBytes, total - offset);
+            long written;
+            try {
+                written = transferChunk(body, channel, offset, limit, crc32c);
+            } catch (IOException | RuntimeException e) {
+                // Never keep a partial or corrupt chunk; the client resends from the same offset
+                channel.truncate(offset);
+                throw e;
+            }
+
+            long newOffset = offset + written;
+            if (newOffset < total) {
+                return new UploadStatusDTO(song.getId(), newOffset, total, false, null);
+            }
+            channel.force(true);
+        }
+
+        // The part file is complete; hash it into the blob store and point the song at it
+        String previousHash = song.getContentHash();
+        BlobStoreService.StoredBlob blob = blobStoreService.store(part, extension,
+                stored -> songService.attachAudioFile(song.getId(), stored.getFilePath(), stored.getHash()));
+        if (!blob.getHash().equals(previousHash)) {
+            blobStoreService.release(previousHash);
+        }
+        logger.info("Upload of {} bytes for song {} complete: {}{}", total, song.getId(), blob.getFilePath(),
+                blob.isDeduplicated() ? " (deduplicated)" : "");
+        return new UploadStatusDTO(song.getId(), total, total, true, blob.getFilePath());
+    }
+
+    // Null when another chunk holds the lock, whether in another process or another thread of this JVM
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static long transferChunk(InputStream body, FileChannel channel, long offset, long limit, long crc32c)
+            throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(body, new CRC32C());
+        ReadableByteChannel source = Channels.newChannel(checked);
+        long written = 0;
+        while (written < limit) {
+            long n = channel.transferFrom(source, offset + written, limit - written);
+            if (n <= 0) {
+                break;
+            }
+            written += n;
+        }
+        if (written == limit && checked.read() != -1) {
+            throw new IllegalArgumentException("Chunk is larger than " + limit + " bytes (chunk size limit or remaining length)");
+        }
+        if (checked.getChecksum().getValue() != crc32c) {
+            throw new IllegalArgumentException("CRC32C mismatch; resend the chunk from offset " + offset);
+        }
+        return written;
+    }
+
+    private Path partFile(Long songId, long total) {
+        return mediaStreamService.getRoot().resolve(UPLOAD_DIR).resolve("song-" + songId + "-" + total + ".part");
+    }
+
+    // A fresh upload abandons any earlier one for the same song that had a different length
+    private void discardOtherParts(Long songId, Path keep) throws IOException {
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(keep.getParent(), "song-" + songId + "-*.part")) {
+            for (Path other : parts) {
+                if (!other.equals(keep)) {
+                    Files.deleteIfExists(other);
+                }
+            }
+        }
+    }
+
+    private static String extension(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (!EXTENSION.matcher(extension).matches()) {
+            throw new IllegalArgumentException("filename must have an audio file extension such as .mp3, .flac or .wav");
+        }
+        return extension;
+    }
+}
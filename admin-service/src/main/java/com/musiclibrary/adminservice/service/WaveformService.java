@@ -0,0 +1,188 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.media.WaveformGenerator;
+import com.musiclibrary.adminservice.repository.SongRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precomputed waveform peaks for the player's scrubber, stored as small binary files under
+ * {@code <media.root>/waveforms}. Blob-store audio is keyed by content hash, so identical files
+ * share peaks and a key never changes meaning; other files are keyed by song id and recomputed
+ * when the audio is newer than its peaks. Only PCM WAV is decoded.
+ */
+@Service
+public class WaveformService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaveformService.class);
+
+    private static final String WAVEFORM_DIR = "waveforms";
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private int[] resolutions;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private MediaStreamService mediaStreamService;
+
+    // Bins per track; each must divide the largest
+    @Value("${media.waveform.resolutions:256,1024,4096}")
+    private int[] configuredResolutions;
+
+    @Value("${media.waveform.threads:2}")
+    private int threads;
+
+    @Value("${media.waveform.queue-capacity:500}")
+    private int queueCapacity;
+
+    @PostConstruct
+    void start() {
+        resolutions = Arrays.stream(configuredResolutions).sorted().distinct().toArray();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "waveform");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean isSupportedResolution(int resolution) {
+        return Arrays.binarySearch(resolutions, resolution) >= 0;
+    }
+
+    /**
+     * The stored peaks file for the song at this resolution, or null if it has not been
+     * computed yet (or is out of date).
+     */
+    public Path find(Song song, int resolution) throws IOException {
+        Path audio = mediaStreamService.resolve(song);
+        if (audio == null) {
+            return null;
+        }
+        Path peaks = peaksFile(key(song), resolution);
+        if (!Files.exists(peaks)) {
+            return null;
+        }
+        if (song.getContentHash() == null
+                && Files.getLastModifiedTime(audio).compareTo(Files.getLastModifiedTime(peaks)) > 0) {
+            return null;
+        }
+        return peaks;
+    }
+
+    /**
+     * Queues peak computation for the song's current file. Returns false when the file is not
+     * decodable or the queue is full.
+     */
+    public boolean submit(Song song) {
+        Path audio = mediaStreamService.resolve(song);
+        try {
+            if (audio == null || !WaveformGenerator.isSupported(audio)) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        Long id = song.getId();
+        if (!queued.add(id)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(id);
+                } finally {
+                    queued.remove(id);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+            return false;
+        }
+    }
+
+    /**
+     * Removes the peaks stored under a content hash once its blob is gone.
+     */
+    public void deleteForHash(String hash) {
+        Path directory = mediaStreamService.getRoot().resolve(WAVEFORM_DIR);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, hash + "-*.peaks")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete waveforms for {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private void generate(Long id) {
+        Song song = songRepository.findById(id).orElse(null);
+        if (song == null) {
+            return;
+        }
+        Path audio = mediaStreamService.resolve(song);
+        if (audio == null) {
+            return;
+        }
+        try {
+            String key = key(song);
+            if (song.getContentHash() != null && Files.exists(peaksFile(key, resolutions[resolutions.length - 1]))) {
+                return;
+            }
+            byte[][] peaks = WaveformGenerator.generate(audio, resolutions);
+            if (peaks == null) {
+                return;
+            }
+            Files.createDirectories(mediaStreamService.getRoot().resolve(WAVEFORM_DIR));
+            for (int r = 0; r < resolutions.length; r++) {
+                Path target = peaksFile(key, resolutions[r]);
+                Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+                Files.write(temp, peaks[r]);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Computed waveform peaks for song {}", id);
+        } catch (IOException e) {
+            logger.warn("Failed to compute waveform for song {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static String key(Song song) {
+        return song.getContentHash() != null ? song.getContentHash() : "song-" + song.getId();
+    }
+
+    private Path peaksFile(String key, int resolution) {
+        return mediaStreamService.getRoot().resolve(WAVEFORM_DIR).resolve(key + "-" + resolution + ".peaks");
+    }
+}
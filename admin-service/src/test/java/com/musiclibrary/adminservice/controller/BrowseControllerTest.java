@@ -0,0 +1,72 @@
+package com.musiclibrary.adminservice.controller;
+
+import com.musiclibrary.adminservice.config.SecurityConfig;
+import com.musiclibrary.adminservice.dto.BrowseGroupPageDTO;
+import com.musiclibrary.adminservice.security.JwtUtil;
+import com.musiclibrary.adminservice.service.BrowseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BrowseController.class, properties = "spring.cloud.config.enabled=false")
+@Import(SecurityConfig.class)
+class BrowseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BrowseService browseService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    void albumsArePublicAndClampThePageSize() throws Exception {
+        when(browseService.getAlbums(any(), anyInt())).thenReturn(new BrowseGroupPageDTO(List.of(), null, false));
+
+        mockMvc.perform(get("/api/albums").param("after", "Devdas").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false));
+        verify(browseService).getAlbums("Devdas", 1000);
+    }
+
+    @Test
+    void artistsClampANonPositivePageSize() throws Exception {
+        when(browseService.getArtists(any(), anyInt())).thenReturn(new BrowseGroupPageDTO(List.of(), null, false));
+
+        mockMvc.perform(get("/api/artists").param("limit", "0"))
+                .andExpect(status().isOk());
+        verify(browseService).getArtists(null, 1);
+    }
+
+    @Test
+    void unknownAlbumIsNotFound() throws Exception {
+        when(browseService.getAlbumSongs("Nope")).thenReturn(null);
+
+        mockMvc.perform(get("/api/albums/Nope/songs"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void knownArtistListsSongs() throws Exception {
+        when(browseService.getArtistSongs("Arijit Singh")).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/artists/{name}/songs", "Arijit Singh"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+}
@@ -0,0 +1,364 @@
+package com.musiclibrary.adminservice.controller;
+
+import com.musiclibrary.adminservice.config.SecurityConfig;
+import com.musiclibrary.adminservice.dto.FacetCountDTO;
+import com.musiclibrary.adminservice.dto.ImportReportDTO;
+import com.musiclibrary.adminservice.dto.SearchResultDTO;
+import com.musiclibrary.adminservice.dto.SongChangeFeedDTO;
+import com.musiclibrary.adminservice.dto.SongPageDTO;
+import com.musiclibrary.adminservice.dto.SuggestionDTO;
+import com.musiclibrary.adminservice.dto.VisibleSongIdsDTO;
+import com.musiclibrary.adminservice.exception.DuplicateResourceException;
+import com.musiclibrary.adminservice.security.JwtUtil;
+import com.musiclibrary.adminservice.service.BrowseService;
+import com.musiclibrary.adminservice.service.CatalogSnapshotService;
+import com.musiclibrary.adminservice.service.SongChangeLogService;
+import com.musiclibrary.adminservice.service.SongImportService;
+import com.musiclibrary.adminservice.service.SongService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = SongController.class, properties = "spring.cloud.config.enabled=false")
+@Import(SecurityConfig.class)
+class SongControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SongService songService;
+
+    @MockBean
+    private SongImportService songImportService;
+
+    @MockBean
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @MockBean
+    private SongChangeLogService songChangeLogService;
+
+    @MockBean
+    private BrowseService browseService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    void suggestIsPublicAndCapsTheLimit() throws Exception {
+        when(songService.suggest("kes", 50)).thenReturn(List.of(new SuggestionDTO("Kesariya", 3)));
+
+        mockMvc.perform(get("/api/songs/suggest").param("prefix", "kes").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Kesariya"))
+                .andExpect(jsonPath("$[0].weight").value(3));
+        verify(songService).suggest("kes", 50);
+    }
+
+    @Test
+    void suggestRequiresAPrefix() throws Exception {
+        mockMvc.perform(get("/api/songs/suggest"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    void searchReturnsAPlainListUnlessFacetsAreRequested() throws Exception {
+        when(songService.searchSongs("kes", null, null, 0)).thenReturn(new SearchResultDTO(List.of(), 0, null));
+
+        mockMvc.perform(get("/api/songs/search").param("searchTerm", "kes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    void searchWithFacetsReturnsCounts() throws Exception {
+        SearchResultDTO result = new SearchResultDTO(List.of(), 4,
+                Map.of("singer", List.of(new FacetCountDTO("Arijit Singh", 4))));
+        when(songService.searchSongs("kes", null, null, 5)).thenReturn(result);
+
+        mockMvc.perform(get("/api/songs/search").param("searchTerm", "kes").param("facets", "true").param("facetLimit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMatches").value(4))
+                .andExpect(jsonPath("$.facets.singer[0].count").value(4));
+    }
+
+    @Test
+    void visibleSongsPageFromACursor() throws Exception {
+        when(songService.getSongPage(true, "name", "desc", "abc", 20)).thenReturn(new SongPageDTO(List.of(), "def", true));
+
+        mockMvc.perform(get("/api/songs/visible").param("after", "abc").param("limit", "20")
+                        .param("sort", "name").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void visibleSongsRejectABadCursor() throws Exception {
+        when(songService.getSongPage(eq(true), any(), any(), eq("garbage"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/songs/visible").param("after", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportStreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(songService).exportSongs(any());
+
+        MvcResult result = mockMvc.perform(get("/api/songs/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void exportIsForAdminsOnly() throws Exception {
+        mockMvc.perform(get("/api/songs/export"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    void visibleIdsNeedAToken() throws Exception {
+        mockMvc.perform(get("/api/songs/visible/ids"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void visibleIdsAreNotForUsers() throws Exception {
+        mockMvc.perform(get("/api/songs/visible/ids"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    @WithMockUser(roles = "SERVICE")
+    void visibleIdsAreServedToServices() throws Exception {
+        when(songService.getVisibleSongIds()).thenReturn(new VisibleSongIdsDTO(7, List.of(3L, 7L)));
+
+        mockMvc.perform(get("/api/songs/visible/ids"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxId").value(7))
+                .andExpect(jsonPath("$.ids[1]").value(7));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importPicksTheFormatFromTheContentType() throws Exception {
+        ImportReportDTO report = new ImportReportDTO();
+        report.setTotalRows(2);
+        report.setImported(2);
+        when(songImportService.importSongs(any(), eq(SongImportService.Format.NDJSON), eq(false))).thenReturn(report);
+
+        mockMvc.perform(post("/api/songs/import").contentType("application/x-ndjson").content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+        verify(songImportService).importSongs(any(), eq(SongImportService.Format.NDJSON), eq(false));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importRejectsOtherContentTypes() throws Exception {
+        mockMvc.perform(post("/api/songs/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(songImportService);
+    }
+
+    @Test
+    void visibleSongsServeTheSnapshotWithAnEtag() throws Exception {
+        stubSnapshot();
+
+        mockMvc.perform(get("/api/songs/visible"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().string("[]"));
+    }
+
+    @Test
+    void visibleSongsAnswerAMatchingEtagWithNotModified() throws Exception {
+        stubSnapshot();
+
+        mockMvc.perform(get("/api/songs/visible").header("If-None-Match", "\"old\", \"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void visibleSongsAreGzippedOnlyWhenGzipIsAcceptable() throws Exception {
+        stubSnapshot();
+
+        mockMvc.perform(get("/api/songs/visible").header("Accept-Encoding", "br , GZIP ; q=0.5"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"abc-gz\""));
+        mockMvc.perform(get("/api/songs/visible").header("Accept-Encoding", "gzip;q=0, deflate"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"abc\""));
+    }
+
+    @Test
+    void acceptEncodingQValuesAreParsed() {
+        assertTrue(SongController.acceptsGzip("gzip"));
+        assertTrue(SongController.acceptsGzip("deflate, gzip;q=0.5"));
+        assertTrue(SongController.acceptsGzip("x-gzip ;Q = 0.2"));
+        assertTrue(SongController.acceptsGzip("*;q=0.1"));
+        assertFalse(SongController.acceptsGzip(null));
+        assertFalse(SongController.acceptsGzip("gzip;q=0"));
+        assertFalse(SongController.acceptsGzip("gzip; q=0.000"));
+        assertFalse(SongController.acceptsGzip("*, gzip;q=0"));
+        assertFalse(SongController.acceptsGzip("br, deflate"));
+        assertFalse(SongController.acceptsGzip("gzip;q=abc"));
+        assertFalse(SongController.acceptsGzip("gzip;q=0.3, identity;q=0.8"));
+        assertFalse(SongController.acceptsGzip("nogzip"));
+    }
+
+    private void stubSnapshot() {
+        CatalogSnapshotService.Snapshot snapshot = mock(CatalogSnapshotService.Snapshot.class);
+        when(snapshot.getJson()).thenReturn("[]".getBytes(StandardCharsets.UTF_8));
+        when(snapshot.getEtag()).thenReturn("\"abc\"");
+        when(snapshot.getGzipEtag()).thenReturn("\"abc-gz\"");
+        when(catalogSnapshotService.visibleSongs()).thenReturn(snapshot);
+    }
+
+    @Test
+    void changesRejectsANegativeCursor() throws Exception {
+        mockMvc.perform(get("/api/songs/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("since must not be negative"));
+        verifyNoInteractions(songChangeLogService);
+    }
+
+    @Test
+    void changesHideHiddenSongsFromAnonymousCallers() throws Exception {
+        when(songChangeLogService.getChanges(anyLong(), anyInt(), anyBoolean())).thenReturn(new SongChangeFeedDTO());
+
+        mockMvc.perform(get("/api/songs/changes").param("since", "5").param("limit", "5000"))
+                .andExpect(status().isOk());
+        verify(songChangeLogService).getChanges(5L, 1000, false);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void changesIncludeHiddenSongsForAdmins() throws Exception {
+        when(songChangeLogService.getChanges(anyLong(), anyInt(), anyBoolean())).thenReturn(new SongChangeFeedDTO());
+
+        mockMvc.perform(get("/api/songs/changes"))
+                .andExpect(status().isOk());
+        verify(songChangeLogService).getChanges(0L, 500, true);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createReturnsConflictForADuplicate() throws Exception {
+        when(songService.createSong(any(), anyBoolean())).thenThrow(new DuplicateResourceException("Song already exists"));
+
+        mockMvc.perform(post("/api/songs").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Kesariya\",\"singer\":\"Arijit Singh\",\"musicDirector\":\"Pritam\","
+                                + "\"albumName\":\"Brahmastra\",\"releaseDate\":\"2022-07-17\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Song already exists"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void bulkUpdateRejectsAnInvalidPatch() throws Exception {
+        when(songService.bulkUpdate(any())).thenThrow(new IllegalArgumentException("Nothing to update"));
+
+        mockMvc.perform(patch("/api/songs/bulk").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Nothing to update"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void bulkUpdateIsForAdminsOnly() throws Exception {
+        mockMvc.perform(patch("/api/songs/bulk").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    void releasesRejectACursorOutsideTheRange() throws Exception {
+        when(browseService.getReleases(any(), any(), anyBoolean(), eq("bad"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Cursor is outside the requested date range"));
+
+        mockMvc.perform(get("/api/songs/releases").param("after", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Cursor is outside the requested date range"));
+    }
+
+    @Test
+    void releasesClampTheLimitToTheReleasesPage() throws Exception {
+        when(browseService.getReleases(any(), any(), anyBoolean(), any(), anyInt())).thenReturn(new SongPageDTO(List.of(), null, false));
+
+        mockMvc.perform(get("/api/songs/releases").param("limit", "5000"))
+                .andExpect(status().isOk());
+        verify(browseService).getReleases(null, null, false, null, 500);
+    }
+
+    @Test
+    void batchRejectsMoreThanAThousandIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post("/api/songs/batch").contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    void batchLooksUpVisibleSongsForAnonymousCallers() throws Exception {
+        when(songService.getSongsByIds(any(), anyBoolean())).thenReturn(List.of());
+
+        mockMvc.perform(post("/api/songs/batch").contentType(MediaType.APPLICATION_JSON).content("[3,1,2]"))
+                .andExpect(status().isOk());
+        verify(songService).getSongsByIds(List.of(3L, 1L, 2L), false);
+    }
+}
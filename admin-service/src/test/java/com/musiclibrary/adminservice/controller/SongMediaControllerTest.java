@@ -0,0 +1,174 @@
+package com.musiclibrary.adminservice.controller;
+
+import com.musiclibrary.adminservice.config.SecurityConfig;
+import com.musiclibrary.adminservice.entity.Song;
+import com.musiclibrary.adminservice.exception.SongNotFoundException;
+import com.musiclibrary.adminservice.exception.UploadOffsetMismatchException;
+import com.musiclibrary.adminservice.security.JwtUtil;
+import com.musiclibrary.adminservice.service.MediaStreamService;
+import com.musiclibrary.adminservice.service.SegmentService;
+import com.musiclibrary.adminservice.service.SongService;
+import com.musiclibrary.adminservice.service.SongUploadService;
+import com.musiclibrary.adminservice.service.WaveformService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = SongMediaController.class, properties = "spring.cloud.config.enabled=false")
+@Import(SecurityConfig.class)
+class SongMediaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SongService songService;
+
+    @MockBean
+    private MediaStreamService mediaStreamService;
+
+    @MockBean
+    private SongUploadService songUploadService;
+
+    @MockBean
+    private WaveformService waveformService;
+
+    @MockBean
+    private SegmentService segmentService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    void streamOfAnUnknownSongIsNotFound() throws Exception {
+        when(songService.getSongById(1L)).thenThrow(new SongNotFoundException("Song not found with id: 1"));
+
+        mockMvc.perform(get("/api/songs/1/stream"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void hiddenSongsCannotBeStreamedByNonAdmins() throws Exception {
+        when(songService.getSongById(1L)).thenReturn(song(false));
+
+        mockMvc.perform(get("/api/songs/1/stream"))
+                .andExpect(status().isNotFound());
+        verifyNoInteractions(mediaStreamService);
+    }
+
+    @Test
+    void waveformRejectsAnUnsupportedResolution() throws Exception {
+        when(waveformService.isSupportedResolution(333)).thenReturn(false);
+
+        mockMvc.perform(get("/api/songs/1/waveform").param("resolution", "333"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    void waveformIsAcceptedWhileBeingComputed() throws Exception {
+        Song song = song(true);
+        when(waveformService.isSupportedResolution(1024)).thenReturn(true);
+        when(songService.getSongById(1L)).thenReturn(song);
+        when(waveformService.find(song, 1024)).thenReturn(null);
+        when(waveformService.submit(song)).thenReturn(true);
+
+        mockMvc.perform(get("/api/songs/1/waveform"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    void prefetchNeedsAToken() throws Exception {
+        mockMvc.perform(post("/api/songs/1/segments/prefetch"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(segmentService);
+    }
+
+    @Test
+    @WithMockUser(roles = "SERVICE")
+    void prefetchOfAVisibleSongIsAccepted() throws Exception {
+        when(songService.getSongById(1L)).thenReturn(song(true));
+
+        mockMvc.perform(post("/api/songs/1/segments/prefetch"))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void uploadAtTheWrongOffsetIsAConflict() throws Exception {
+        when(songUploadService.receiveChunk(eq(1L), eq(10L), eq(100L), eq("song.mp3"), anyLong(), any()))
+                .thenThrow(new UploadOffsetMismatchException("Expected offset 40", 40));
+
+        mockMvc.perform(upload(10))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Upload-Offset", "40"))
+                .andExpect(jsonPath("$.error").value("Expected offset 40"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void uploadRejectsAnInvalidChunk() throws Exception {
+        when(songUploadService.receiveChunk(eq(1L), eq(0L), eq(100L), anyString(), anyLong(), any()))
+                .thenThrow(new IllegalArgumentException("Chunk checksum mismatch"));
+
+        mockMvc.perform(upload(0))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Chunk checksum mismatch"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void uploadForAnUnknownSongIsNotFound() throws Exception {
+        when(songUploadService.receiveChunk(eq(1L), eq(0L), eq(100L), anyString(), anyLong(), any()))
+                .thenThrow(new SongNotFoundException("Song not found with id: 1"));
+
+        mockMvc.perform(upload(0))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void uploadIsForAdminsOnly() throws Exception {
+        mockMvc.perform(upload(0))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(songUploadService);
+    }
+
+    private static MockHttpServletRequestBuilder upload(long offset) {
+        return post("/api/songs/1/upload")
+                .param("offset", String.valueOf(offset))
+                .param("total", "100")
+                .param("filename", "song.mp3")
+                .header("X-Chunk-CRC32C", "1a2b3c4d")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[] { 1, 2, 3 });
+    }
+
+    private static Song song(boolean visible) {
+        Song song = new Song("Kesariya", "Arijit Singh", "Pritam", LocalDate.of(2022, 7, 17), "Brahmastra");
+        song.setId(1L);
+        song.setIsVisible(visible);
+        return song;
+    }
+}
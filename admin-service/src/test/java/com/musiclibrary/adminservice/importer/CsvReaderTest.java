@@ -0,0 +1,73 @@
+package com.musiclibrary.adminservice.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("name,singer\nKesariya,Arijit Singh\r\nTum Hi Ho,"));
+
+        assertEquals(List.of("name", "singer"), reader.readRecord());
+        assertEquals(List.of("Kesariya", "Arijit Singh"), reader.readRecord());
+        assertEquals(3, reader.getLine());
+        assertEquals(List.of("Tum Hi Ho", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readsQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"Hello, World\",\"Say \"\"hi\"\"\",\"\"\n"));
+
+        assertEquals(List.of("Hello, World", "Say \"hi\"", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"line one\nline two\",x\nnext,row\n"));
+
+        assertEquals(List.of("line one\nline two", "x"), reader.readRecord());
+        assertEquals(3, reader.getLine());
+        assertEquals(List.of("next", "row"), reader.readRecord());
+    }
+
+    @Test
+    void quotesInsideAnUnquotedFieldAreLiteral() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("5\" single,b\n"));
+
+        assertEquals(List.of("5\" single", "b"), reader.readRecord());
+    }
+
+    @Test
+    void keepsBlankLinesAsEmptyRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a\n\nb\n"));
+
+        assertEquals(List.of("a"), reader.readRecord());
+        assertEquals(List.of(""), reader.readRecord());
+        assertEquals(List.of("b"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ok,row\n\"never closed,x\n"));
+
+        assertEquals(List.of("ok", "row"), reader.readRecord());
+        CsvFormatException e = assertThrows(CsvFormatException.class, reader::readRecord);
+        assertEquals("Unterminated quoted field at line 3", e.getMessage());
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertNull(new CsvReader(new StringReader("")).readRecord());
+    }
+}
@@ -0,0 +1,135 @@
+package com.musiclibrary.adminservice.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AudioProbeTest {
+
+    // MPEG-1 Layer III, 128 kbps, 44.1 kHz, stereo, no padding: 417 bytes per frame
+    private static final int MP3_HEADER = 0xFFFB9000;
+    private static final int MP3_FRAME_LENGTH = 417;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void probesWav() throws IOException {
+        // One second of 16-bit mono at 8 kHz, behind an odd-sized chunk that is padded to even length
+        ByteBuffer wav = wavHeader(1, 8000, 16, 16000, 3);
+        Path file = write("song.wav", wav.array());
+
+        AudioInfo info = AudioProbe.probe(file);
+
+        assertNotNull(info);
+        assertEquals(1.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(128000, info.getBitrate());
+        assertEquals(8000, info.getSampleRate());
+    }
+
+    @Test
+    void probesFlacStreamInfo() throws IOException {
+        ByteBuffer flac = ByteBuffer.allocate(4 + 4 + 34 + 1000);
+        flac.put("fLaC".getBytes(StandardCharsets.US_ASCII));
+        flac.put((byte) 0x80).put((byte) 0).put((byte) 0).put((byte) 34);
+        flac.position(8 + 10);
+        // 44.1 kHz, 2 channels, 16 bits, ten seconds of samples
+        flac.putLong(44100L << 44 | 1L << 41 | 15L << 36 | 441000L);
+        Path file = write("song.flac", flac.array());
+
+        AudioInfo info = AudioProbe.probe(file);
+
+        assertNotNull(info);
+        assertEquals(10.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(44100, info.getSampleRate());
+        assertEquals(Math.round(flac.capacity() * 8 / 10.0), info.getBitrate());
+    }
+
+    @Test
+    void probesConstantBitrateMp3AfterAnId3Tag() throws IOException {
+        int frames = 100;
+        ByteBuffer mp3 = ByteBuffer.allocate(10 + 20 + frames * MP3_FRAME_LENGTH);
+        mp3.put("ID3".getBytes(StandardCharsets.US_ASCII)).put((byte) 4).put((byte) 0).put((byte) 0);
+        mp3.put(new byte[] { 0, 0, 0, 20 });
+        mp3.position(30);
+        for (int i = 0; i < frames; i++) {
+            mp3.putInt(30 + i * MP3_FRAME_LENGTH, MP3_HEADER);
+        }
+        Path file = write("song.mp3", mp3.array());
+
+        AudioInfo info = AudioProbe.probe(file);
+
+        assertNotNull(info);
+        assertEquals(frames * MP3_FRAME_LENGTH * 8 / 128000.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(128000, info.getBitrate());
+        assertEquals(44100, info.getSampleRate());
+    }
+
+    @Test
+    void usesTheXingFrameCountForVariableBitrateMp3() throws IOException {
+        ByteBuffer mp3 = ByteBuffer.allocate(3 * MP3_FRAME_LENGTH);
+        for (int i = 0; i < 3; i++) {
+            mp3.putInt(i * MP3_FRAME_LENGTH, MP3_HEADER);
+        }
+        // The Xing header follows the 32-byte side info of a stereo MPEG-1 frame
+        mp3.position(4 + 32);
+        mp3.put("Xing".getBytes(StandardCharsets.US_ASCII)).putInt(0x1).putInt(1000);
+        Path file = write("vbr.mp3", mp3.array());
+
+        AudioInfo info = AudioProbe.probe(file);
+
+        assertNotNull(info);
+        assertEquals(1000 * 1152 / 44100.0, info.getDurationSeconds(), 1e-9);
+        assertEquals(44100, info.getSampleRate());
+    }
+
+    @Test
+    void ignoresAFrameSyncWithoutAFollowingFrame() throws IOException {
+        ByteBuffer noise = ByteBuffer.allocate(2000);
+        noise.putInt(100, MP3_HEADER);
+
+        assertNull(AudioProbe.probe(write("noise.bin", noise.array())));
+    }
+
+    @Test
+    void returnsNullForUnknownOrTinyFiles() throws IOException {
+        assertNull(AudioProbe.probe(write("notes.txt", "just some text, not audio".getBytes(StandardCharsets.US_ASCII))));
+        assertNull(AudioProbe.probe(write("tiny.bin", new byte[] { 1, 2 })));
+        // A WAV whose data chunk comes before any fmt chunk has no byte rate to go on
+        ByteBuffer wav = ByteBuffer.allocate(12 + 8 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(16).put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(4);
+        assertNull(AudioProbe.probe(write("broken.wav", wav.array())));
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(dir.resolve(name), content);
+    }
+
+    // RIFF header, an optional filler chunk, fmt and a data chunk of dataSize zero bytes
+    private static ByteBuffer wavHeader(int channels, int sampleRate, int bits, int dataSize, int fillerSize) {
+        int filler = fillerSize == 0 ? 0 : 8 + fillerSize + (fillerSize & 1);
+        ByteBuffer wav = ByteBuffer.allocate(12 + filler + 8 + 16 + 8 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(wav.capacity() - 8).put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        if (fillerSize > 0) {
+            wav.put("LIST".getBytes(StandardCharsets.US_ASCII)).putInt(fillerSize);
+            wav.position(wav.position() + fillerSize + (fillerSize & 1));
+        }
+        int blockAlign = channels * bits / 8;
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        wav.putShort((short) 1).putShort((short) channels).putInt(sampleRate)
+                .putInt(sampleRate * blockAlign).putShort((short) blockAlign).putShort((short) bits);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(dataSize);
+        return wav;
+    }
+}
@@ -0,0 +1,102 @@
+package com.musiclibrary.adminservice.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaveformGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void computesPeaksAtEveryResolution() throws IOException {
+        // Four quarters: full positive, silent, half negative (-63.5 rounds up), full swing
+        short[] samples = new short[400];
+        for (int i = 0; i < 100; i++) {
+            samples[i] = Short.MAX_VALUE;
+            samples[200 + i] = -16384;
+            samples[300 + i] = (short) (i % 2 == 0 ? Short.MIN_VALUE : Short.MAX_VALUE);
+        }
+        Path file = write("wave.wav", pcm16(1, samples));
+
+        byte[][] peaks = WaveformGenerator.generate(file, new int[] { 4, 2, 1 });
+
+        assertArrayEquals(new byte[] { 127, 127, 0, 0, -63, -63, -127, 127 }, peaks[0]);
+        assertArrayEquals(new byte[] { 0, 127, -127, 127 }, peaks[1]);
+        assertArrayEquals(new byte[] { -127, 127 }, peaks[2]);
+    }
+
+    @Test
+    void takesTheExtremesAcrossChannels() throws IOException {
+        short[] frames = new short[200];
+        for (int i = 0; i < 100; i++) {
+            frames[2 * i] = 8192;
+            frames[2 * i + 1] = -8192;
+        }
+        Path file = write("stereo.wav", pcm16(2, frames));
+
+        byte[][] peaks = WaveformGenerator.generate(file, new int[] { 1 });
+
+        assertArrayEquals(new byte[] { -32, 32 }, peaks[0]);
+    }
+
+    @Test
+    void leavesBinsWithoutAudioSilent() throws IOException {
+        Path file = write("short.wav", pcm16(1, new short[] { Short.MAX_VALUE, Short.MAX_VALUE }));
+
+        byte[][] peaks = WaveformGenerator.generate(file, new int[] { 4 });
+
+        assertArrayEquals(new byte[] { 127, 127, 0, 0, 127, 127, 0, 0 }, peaks[0]);
+    }
+
+    @Test
+    void rejectsResolutionsThatDoNotDivideTheFinest() {
+        assertThrows(IllegalArgumentException.class, () -> WaveformGenerator.generate(dir.resolve("unused.wav"), new int[] { 10, 3 }));
+        assertThrows(IllegalArgumentException.class, () -> WaveformGenerator.generate(dir.resolve("unused.wav"), new int[] { 10, 0 }));
+    }
+
+    @Test
+    void supportsOnlyPcmAndFloatWav() throws IOException {
+        Path wav = write("ok.wav", pcm16(1, new short[] { 1, 2 }));
+        Path mp3 = write("song.mp3", new byte[] { (byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+        ByteBuffer adpcm = ByteBuffer.wrap(pcm16(1, new short[] { 1, 2 })).order(ByteOrder.LITTLE_ENDIAN);
+        adpcm.putShort(20, (short) 2);
+        Path compressed = write("adpcm.wav", adpcm.array());
+
+        assertTrue(WaveformGenerator.isSupported(wav));
+        assertFalse(WaveformGenerator.isSupported(mp3));
+        assertFalse(WaveformGenerator.isSupported(compressed));
+        assertNull(WaveformGenerator.generate(compressed, new int[] { 1 }));
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(dir.resolve(name), content);
+    }
+
+    // 16-bit PCM WAV at 8 kHz with interleaved samples
+    private static byte[] pcm16(int channels, short[] samples) {
+        ByteBuffer wav = ByteBuffer.allocate(44 + samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(wav.capacity() - 8).put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        wav.putShort((short) 1).putShort((short) channels).putInt(8000)
+                .putInt(8000 * channels * 2).putShort((short) (channels * 2)).putShort((short) 16);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(samples.length * 2);
+        for (short sample : samples) {
+            wav.putShort(sample);
+        }
+        return wav.array();
+    }
+}
@@ -0,0 +1,48 @@
+package com.musiclibrary.adminservice.repository;
+
+import com.musiclibrary.adminservice.entity.Song;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+class SongRepositoryTest {
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void updateMatchingChangesOnlyTheFilteredSongsAndStampsThem() {
+        Song first = songRepository.save(song("Kesariya", "Brahmastra"));
+        Song second = songRepository.save(song("Deva Deva", "Brahmastra"));
+        Song other = songRepository.save(song("Tum Hi Ho", "Aashiqui 2"));
+        entityManager.flush();
+        LocalDateTime stamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        int updated = songRepository.updateMatching(Map.of("albumName", "Brahmastra"), Map.of("isVisible", false), stamp);
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        assertEquals(List.of(first.getId(), second.getId()),
+                songRepository.findIdsByUpdatedAt(stamp).stream().sorted().toList());
+        assertFalse(songRepository.findById(first.getId()).orElseThrow().getIsVisible());
+        assertEquals(true, songRepository.findById(other.getId()).orElseThrow().getIsVisible());
+    }
+
+    private static Song song(String name, String album) {
+        return new Song(name, "Arijit Singh", "Pritam", LocalDate.of(2022, 7, 17), album);
+    }
+}
@@ -0,0 +1,74 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+
+    @Test
+    void findsTermsWithinTheDistance() {
+        BkTree tree = new BkTree();
+        for (String term : List.of("kesariya", "kesar", "mereya", "humma", "hum")) {
+            tree.add(term);
+        }
+
+        assertEquals(Set.of("kesariya"), new HashSet<>(tree.search("kesraiya", 1)));
+        assertEquals(Set.of("humma", "hum"), new HashSet<>(tree.search("humm", 1)));
+        assertTrue(tree.search("zzz", 1).isEmpty());
+    }
+
+    @Test
+    void ignoresDuplicateTerms() {
+        BkTree tree = new BkTree();
+        tree.add("kesar");
+        tree.add("kesar");
+
+        assertEquals(1, tree.size());
+        assertEquals(List.of("kesar"), tree.search("kesar", 0));
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertTrue(tree.search("kesar", 2).isEmpty());
+    }
+
+    @Test
+    void matchesALinearScan() {
+        Random random = new Random(42);
+        List<String> terms = new ArrayList<>();
+        BkTree tree = new BkTree();
+        for (int i = 0; i < 500; i++) {
+            String term = randomWord(random);
+            terms.add(term);
+            tree.add(term);
+        }
+        for (int q = 0; q < 50; q++) {
+            String query = randomWord(random);
+            for (int distance = 0; distance <= 2; distance++) {
+                Set<String> expected = new HashSet<>();
+                for (String term : terms) {
+                    if (EditDistance.damerauLevenshtein(query, term) <= distance) {
+                        expected.add(term);
+                    }
+                }
+                assertEquals(expected, new HashSet<>(tree.search(query, distance)));
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25RankerTest {
+
+    private final Bm25Ranker ranker = new Bm25Ranker();
+    private final TokenIndex tokenIndex = new TokenIndex();
+    private final EnumMap<SongField, Double> boosts = new EnumMap<>(SongField.class);
+
+    @BeforeEach
+    void setUp() {
+        boosts.put(SongField.NAME, 3.0);
+        boosts.put(SongField.SINGER, 1.0);
+        boosts.put(SongField.MUSIC_DIRECTOR, 1.0);
+        boosts.put(SongField.ALBUM, 1.0);
+    }
+
+    @Test
+    void boostedFieldsRankFirst() {
+        add(1L, "Rain Song", "Arijit Singh");
+        add(2L, "Kesariya", "Rain");
+        add(3L, "Tum Hi Ho", "Arijit Singh");
+
+        List<Long> ranked = ranker.topK(List.of(1L, 2L, 3L), List.of("rain"), boosts, tokenIndex::documentFrequency, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), ranked);
+    }
+
+    @Test
+    void limitsToKAndBreaksTiesByLowerId() {
+        add(5L, "Rain", "A");
+        add(3L, "Rain", "A");
+        add(4L, "Rain", "A");
+
+        List<Long> ranked = ranker.topK(List.of(5L, 3L, 4L), List.of("rain"), boosts, tokenIndex::documentFrequency, 2);
+
+        assertEquals(List.of(3L, 4L), ranked);
+        assertTrue(ranker.topK(List.of(3L), List.of("rain"), boosts, tokenIndex::documentFrequency, 0).isEmpty());
+    }
+
+    @Test
+    void matchesPartiallyTypedWords() {
+        add(1L, "Kesariya", "Arijit Singh");
+        add(2L, "Tum Hi Ho", "Arijit Singh");
+
+        List<Long> ranked = ranker.topK(List.of(2L, 1L), List.of("kesa"), boosts, tokenIndex::documentFrequency, 10);
+
+        assertEquals(List.of(1L, 2L), ranked);
+    }
+
+    @Test
+    void expandedTermsScoreByTheirWeight() {
+        add(1L, "Kesar", "A");
+        add(2L, "Kesariya", "A");
+
+        // "kesraiya" resolved to kesariya at distance 1 and kesar at distance 3
+        Map<String, Double> alternatives = Map.of("kesariya", 1.0 / 2, "kesar", 1.0 / 4);
+        List<Long> ranked = ranker.topKExpanded(List.of(1L, 2L), List.of(alternatives), boosts,
+                tokenIndex::documentFrequency, 10);
+
+        assertEquals(List.of(2L, 1L), ranked);
+    }
+
+    @Test
+    void removedDocumentsScoreZero() {
+        add(1L, "Rain", "A");
+        add(2L, "Rain Rain", "A");
+        ranker.remove(2L);
+        tokenIndex.remove(2L);
+
+        List<Long> ranked = ranker.topK(List.of(2L, 1L), List.of("rain"), boosts, tokenIndex::documentFrequency, 10);
+
+        assertEquals(List.of(1L, 2L), ranked);
+    }
+
+    private void add(Long id, String name, String singer) {
+        Map<SongField, List<String>> fields = new EnumMap<>(SongField.class);
+        fields.put(SongField.NAME, Tokenizer.tokenize(name));
+        fields.put(SongField.SINGER, Tokenizer.tokenize(singer));
+        ranker.add(id, fields);
+        tokenIndex.add(id, fields.values().stream().flatMap(List::stream).toList());
+    }
+}
@@ -0,0 +1,106 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactBitmapTest {
+
+    @Test
+    void tracksMembership() {
+        CompactBitmap bitmap = new CompactBitmap();
+        assertTrue(bitmap.isEmpty());
+
+        bitmap.add(7);
+        bitmap.add(7);
+        bitmap.add(70000);
+
+        assertTrue(bitmap.contains(7));
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(8));
+        assertEquals(2, bitmap.cardinality());
+
+        bitmap.remove(7);
+        bitmap.remove(8);
+        assertFalse(bitmap.contains(7));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactBitmap().add(-1));
+    }
+
+    @Test
+    void switchesBetweenArrayAndBitsetBuckets() {
+        CompactBitmap bitmap = new CompactBitmap();
+        // Well past the 4096 values an array bucket holds, all in the first bucket
+        for (int i = 0; i < 10000; i += 2) {
+            bitmap.add(i);
+        }
+        assertEquals(5000, bitmap.cardinality());
+        assertTrue(bitmap.contains(9998));
+        assertFalse(bitmap.contains(9999));
+
+        for (int i = 0; i < 10000; i += 4) {
+            bitmap.remove(i);
+        }
+        assertEquals(2500, bitmap.cardinality());
+        assertTrue(bitmap.contains(2));
+        assertFalse(bitmap.contains(4));
+    }
+
+    @Test
+    void matchesAHashSet() {
+        Random random = new Random(7);
+        CompactBitmap bitmap = new CompactBitmap();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 50000; i++) {
+            int value = random.nextInt(3 * 65536);
+            if (random.nextInt(3) == 0) {
+                bitmap.remove(value);
+                expected.remove(value);
+            } else {
+                bitmap.add(value);
+                expected.add(value);
+            }
+        }
+        assertEquals(expected.size(), bitmap.cardinality());
+        for (int value = 0; value < 3 * 65536; value++) {
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    void countsIntersectionsAcrossBucketKinds() {
+        Random random = new Random(11);
+        CompactBitmap dense = new CompactBitmap();
+        CompactBitmap sparse = new CompactBitmap();
+        Set<Integer> denseValues = new HashSet<>();
+        Set<Integer> sparseValues = new HashSet<>();
+        for (int i = 0; i < 40000; i++) {
+            int value = random.nextInt(2 * 65536);
+            dense.add(value);
+            denseValues.add(value);
+        }
+        for (int i = 0; i < 3000; i++) {
+            int value = random.nextInt(4 * 65536);
+            sparse.add(value);
+            sparseValues.add(value);
+        }
+        Set<Integer> both = new HashSet<>(denseValues);
+        both.retainAll(sparseValues);
+
+        assertEquals(both.size(), dense.andCardinality(sparse));
+        assertEquals(both.size(), sparse.andCardinality(dense));
+        assertEquals(denseValues.size(), dense.andCardinality(dense));
+        assertEquals(0, dense.andCardinality(new CompactBitmap()));
+    }
+}
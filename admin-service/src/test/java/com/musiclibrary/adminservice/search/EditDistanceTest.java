@@ -0,0 +1,28 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EditDistanceTest {
+
+    @Test
+    void countsInsertionsDeletionsAndSubstitutions() {
+        assertEquals(0, EditDistance.damerauLevenshtein("kesariya", "kesariya"));
+        assertEquals(3, EditDistance.damerauLevenshtein("kitten", "sitting"));
+        assertEquals(5, EditDistance.damerauLevenshtein("", "hello"));
+        assertEquals(5, EditDistance.damerauLevenshtein("hello", ""));
+    }
+
+    @Test
+    void countsAnAdjacentTranspositionAsOneEdit() {
+        assertEquals(1, EditDistance.damerauLevenshtein("ca", "ac"));
+        assertEquals(1, EditDistance.damerauLevenshtein("kesraiya", "kesariya"));
+    }
+
+    @Test
+    void allowsEditsBetweenTransposedCharacters() {
+        // The restricted (optimal string alignment) distance would be 3 here
+        assertEquals(2, EditDistance.damerauLevenshtein("ca", "abc"));
+    }
+}
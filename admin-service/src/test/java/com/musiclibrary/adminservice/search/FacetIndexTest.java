@@ -0,0 +1,118 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FacetIndexTest {
+
+    @Test
+    void countsMostFrequentValuesFirst() {
+        FacetIndex index = new FacetIndex();
+        index.add(song(1L, "Arijit Singh", "Brahmastra", LocalDate.of(2022, 7, 17)));
+        index.add(song(2L, "Arijit Singh", "Aashiqui 2", LocalDate.of(2013, 1, 1)));
+        index.add(song(3L, "Shreya Ghoshal", "Aashiqui 2", LocalDate.of(2013, 2, 1)));
+        index.add(song(4L, "Shreya Ghoshal", "Devdas", null));
+        index.add(song(5L, "Arijit Singh", null, LocalDate.of(2013, 3, 1)));
+
+        Map<Facet, List<FacetIndex.FacetCount>> counts = index.count(List.of(1L, 2L, 3L, 4L, 5L), 2);
+
+        assertEquals(List.of("Arijit Singh=3", "Shreya Ghoshal=2"), describe(counts.get(Facet.SINGER)));
+        // Ties go to the smaller value
+        assertEquals(List.of("Aashiqui 2=2", "Brahmastra=1"), describe(counts.get(Facet.ALBUM)));
+        assertEquals(List.of("2013=3", "2022=1"), describe(counts.get(Facet.RELEASE_YEAR)));
+    }
+
+    @Test
+    void countsOnlyTheMatches() {
+        FacetIndex index = new FacetIndex();
+        index.add(song(1L, "Arijit Singh", "Brahmastra", null));
+        index.add(song(2L, "Arijit Singh", "Aashiqui 2", null));
+        index.add(song(3L, "Shreya Ghoshal", "Aashiqui 2", null));
+
+        Map<Facet, List<FacetIndex.FacetCount>> counts = index.count(List.of(3L), 5);
+
+        assertEquals(List.of("Shreya Ghoshal=1"), describe(counts.get(Facet.SINGER)));
+        assertTrue(index.count(List.of(), 5).get(Facet.SINGER).isEmpty());
+        assertTrue(index.count(List.of(1L), 0).get(Facet.SINGER).isEmpty());
+    }
+
+    @Test
+    void removalsAndUpdatesAreReflected() {
+        FacetIndex index = new FacetIndex();
+        index.add(song(1L, "Arijit Singh", "Brahmastra", null));
+        index.add(song(2L, "Arijit Singh", "Aashiqui 2", null));
+        index.remove(1L);
+        index.add(song(2L, "Shreya Ghoshal", "Aashiqui 2", null));
+
+        Map<Facet, List<FacetIndex.FacetCount>> counts = index.count(List.of(1L, 2L), 5);
+
+        assertEquals(List.of("Shreya Ghoshal=1"), describe(counts.get(Facet.SINGER)));
+    }
+
+    @Test
+    void bothCountingStrategiesMatchABruteForceCount() {
+        Random random = new Random(3);
+        FacetIndex index = new FacetIndex();
+        List<Song> songs = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            Song song = song(id, "Singer " + random.nextInt(40), "Album " + random.nextInt(400),
+                    LocalDate.of(1990 + random.nextInt(30), 1, 1));
+            songs.add(song);
+            index.add(song);
+        }
+        // Small match sets are counted from the matches, large ones from the value bitmaps
+        for (int matchCount : new int[] { 5, 30, 300, 1500 }) {
+            List<Long> matches = new ArrayList<>();
+            for (Song song : songs) {
+                if (random.nextInt(songs.size()) < matchCount) {
+                    matches.add(song.getId());
+                }
+            }
+            Map<Facet, List<FacetIndex.FacetCount>> counts = index.count(matches, 10);
+            for (Facet facet : Facet.values()) {
+                assertEquals(bruteForce(songs, matches, facet, 10), describe(counts.get(facet)));
+            }
+        }
+    }
+
+    private static List<String> bruteForce(List<Song> songs, List<Long> matches, Facet facet, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Long id : matches) {
+            String value = facet.valueOf(songs.get((int) (id - 1)));
+            if (value != null) {
+                counts.merge(value, 1, Integer::sum);
+            }
+        }
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            result.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return result;
+    }
+
+    private static List<String> describe(List<FacetIndex.FacetCount> counts) {
+        List<String> result = new ArrayList<>();
+        for (FacetIndex.FacetCount count : counts) {
+            result.add(count.getValue() + "=" + count.getCount());
+        }
+        return result;
+    }
+
+    private static Song song(Long id, String singer, String album, LocalDate releaseDate) {
+        Song song = new Song("Song " + id, singer, "Pritam", releaseDate, album);
+        song.setId(id);
+        return song;
+    }
+}
@@ -0,0 +1,90 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+import org.junit.jupiter.api.Test;
+
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GroupIndexTest {
+
+    private final Collator collator = Collator.getInstance(Locale.ENGLISH);
+
+    @Test
+    void pagesGroupsInCollationOrder() {
+        GroupIndex index = new GroupIndex(collator, Song::getAlbumName, GroupIndex.MemberOrder.RELEASE_DATE);
+        index.add(song(1L, "A", "cherry", null));
+        index.add(song(2L, "A", "Banana", null));
+        index.add(song(3L, "A", "apple", null));
+        index.add(song(4L, "A", "  ", null));
+        index.add(song(5L, "A", null, null));
+
+        assertEquals(List.of("apple", "Banana", "cherry"), names(index.page(null, 10)));
+        assertEquals(List.of("Banana"), names(index.page("apple", 1)));
+        // The cursor need not be an existing group
+        assertEquals(List.of("cherry"), names(index.page("blueberry", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void ordersMembersByReleaseDateThenName() {
+        GroupIndex index = new GroupIndex(collator, Song::getAlbumName, GroupIndex.MemberOrder.RELEASE_DATE);
+        index.add(song(1L, "Zara", "Devdas", LocalDate.of(2002, 5, 1)));
+        index.add(song(2L, "Bairi Piya", "Devdas", LocalDate.of(2002, 5, 1)));
+        index.add(song(3L, "Dola Re", "Devdas", null));
+        index.add(song(4L, "Silsila", "Devdas", LocalDate.of(2001, 1, 1)));
+
+        GroupIndex.Group group = index.get(" Devdas ");
+
+        assertEquals(List.of(4L, 2L, 1L, 3L), group.getSongIds());
+        assertEquals(4, group.getSongCount());
+        assertEquals(LocalDate.of(2001, 1, 1), group.getEarliestReleaseDate());
+    }
+
+    @Test
+    void ordersMembersByName() {
+        GroupIndex index = new GroupIndex(collator, Song::getSinger, GroupIndex.MemberOrder.NAME);
+        Song b = song(1L, "banjara", null, null);
+        b.setSinger("Arijit");
+        Song a = song(2L, "Aaj Din Chadheya", null, null);
+        a.setSinger("Arijit");
+        index.add(b);
+        index.add(a);
+
+        assertEquals(List.of(2L, 1L), index.get("Arijit").getSongIds());
+    }
+
+    @Test
+    void removalsUpdateEarliestDateAndDropEmptyGroups() {
+        GroupIndex index = new GroupIndex(collator, Song::getAlbumName, GroupIndex.MemberOrder.RELEASE_DATE);
+        index.add(song(1L, "A", "Devdas", LocalDate.of(2001, 1, 1)));
+        index.add(song(2L, "B", "Devdas", LocalDate.of(2002, 1, 1)));
+        index.add(song(3L, "C", "Devdas", LocalDate.of(2001, 1, 1)));
+
+        index.remove(1L);
+        assertEquals(LocalDate.of(2001, 1, 1), index.get("Devdas").getEarliestReleaseDate());
+        index.remove(3L);
+        assertEquals(LocalDate.of(2002, 1, 1), index.get("Devdas").getEarliestReleaseDate());
+
+        // Moving the last song to another album drops the old group
+        index.add(song(2L, "B", "Lagaan", LocalDate.of(2002, 1, 1)));
+        assertNull(index.get("Devdas"));
+        assertEquals(List.of("Lagaan"), names(index.page(null, 10)));
+    }
+
+    private static List<String> names(List<GroupIndex.Group> groups) {
+        return groups.stream().map(GroupIndex.Group::getName).collect(Collectors.toList());
+    }
+
+    private static Song song(Long id, String name, String album, LocalDate releaseDate) {
+        Song song = new Song(name, "Singer", "Director", releaseDate, album);
+        song.setId(id);
+        return song;
+    }
+}
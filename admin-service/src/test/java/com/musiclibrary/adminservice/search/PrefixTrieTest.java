@@ -0,0 +1,60 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    @Test
+    void completesBestWeightedFirst() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.adjust("kesariya", "Kesariya", 3);
+        trie.adjust("kesar", "Kesar", 1);
+        trie.adjust("kal ho na ho", "Kal Ho Na Ho", 5);
+        trie.adjust("tum hi ho", "Tum Hi Ho", 9);
+
+        List<PrefixTrie.Completion> completions = trie.complete("k", 10);
+
+        assertEquals(List.of("Kal Ho Na Ho", "Kesariya", "Kesar"), texts(completions));
+        assertEquals(List.of(5, 3, 1), completions.stream().map(PrefixTrie.Completion::getWeight).collect(Collectors.toList()));
+        assertEquals(List.of("Kal Ho Na Ho"), texts(trie.complete("k", 1)));
+        assertTrue(trie.complete("x", 10).isEmpty());
+    }
+
+    @Test
+    void keyIsItsOwnCompletion() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.adjust("kesar", "Kesar", 4);
+        trie.adjust("kesariya", "Kesariya", 2);
+
+        assertEquals(List.of("Kesar", "Kesariya"), texts(trie.complete("kesar", 10)));
+    }
+
+    @Test
+    void adjustingToZeroRemovesTheEntry() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.adjust("kesariya", "Kesariya", 2);
+        trie.adjust("kesar", "Kesar", 1);
+        assertEquals(2, trie.size());
+
+        trie.adjust("kesariya", "Kesariya", -1);
+        assertEquals(List.of("Kesar", "Kesariya"), texts(trie.complete("kes", 10)));
+
+        trie.adjust("kesariya", "Kesariya", -1);
+        assertEquals(List.of("Kesar"), texts(trie.complete("kes", 10)));
+        assertEquals(1, trie.size());
+
+        // Removing an absent key is a no-op
+        trie.adjust("tum", "Tum", -1);
+        assertEquals(1, trie.size());
+    }
+
+    private static List<String> texts(List<PrefixTrie.Completion> completions) {
+        return completions.stream().map(PrefixTrie.Completion::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,57 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReleaseIndexTest {
+
+    private final ReleaseIndex index = new ReleaseIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.add(1L, LocalDate.of(2020, 1, 1));
+        index.add(2L, LocalDate.of(2021, 6, 1));
+        index.add(3L, LocalDate.of(2021, 6, 1));
+        index.add(4L, LocalDate.of(2022, 3, 1));
+        index.add(5L, LocalDate.of(2023, 9, 1));
+    }
+
+    @Test
+    void listsTheRangeInEitherDirection() {
+        LocalDate from = LocalDate.of(2021, 1, 1);
+        LocalDate to = LocalDate.of(2022, 12, 31);
+
+        assertEquals(List.of(2L, 3L, 4L), index.range(from, to, false, null, null, 10));
+        assertEquals(List.of(4L, 3L, 2L), index.range(from, to, true, null, null, 10));
+        assertEquals(List.of(1L, 2L), index.range(null, LocalDate.of(2021, 6, 1), false, null, null, 2));
+        assertEquals(List.of(5L, 4L), index.range(LocalDate.of(2022, 3, 1), null, true, null, null, 10));
+    }
+
+    @Test
+    void continuesAfterTheCursor() {
+        assertEquals(List.of(3L, 4L), index.range(null, null, false, LocalDate.of(2021, 6, 1), 2L, 2));
+        assertEquals(List.of(2L, 1L), index.range(null, null, true, LocalDate.of(2021, 6, 1), 3L, 10));
+    }
+
+    @Test
+    void rejectsACursorOutsideTheRange() {
+        assertThrows(IllegalArgumentException.class, () -> index.range(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31),
+                false, LocalDate.of(2020, 1, 1), 1L, 10));
+    }
+
+    @Test
+    void readdingMovesTheEntry() {
+        index.add(1L, LocalDate.of(2024, 1, 1));
+        index.remove(5L);
+        index.add(6L, null);
+
+        assertEquals(List.of(2L, 3L, 4L, 1L), index.range(null, null, false, null, null, 10));
+        assertEquals(4, index.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.musiclibrary.adminservice.search;
+
+import com.musiclibrary.adminservice.entity.Song;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SongFingerprintTest {
+
+    @Test
+    void ignoresCaseAccentsAndSpacing() {
+        Song a = new Song("Cafe  del Mar", "Energy 52", "Pritam", null, "Strasse");
+        Song b = new Song(" CAF\u00c9 del mar", "energy 52 ", "Someone Else", null, "STRA\u00dfE");
+
+        assertEquals(SongFingerprint.of(a), SongFingerprint.of(b));
+    }
+
+    @Test
+    void distinguishesFields() {
+        Song a = new Song("Kesariya", "Arijit Singh", "Pritam", null, "Brahmastra");
+        Song b = new Song("Kesariya", "Arijit Singh", "Pritam", null, "Brahmastra Unplugged");
+        // A value must not bleed into the next field
+        Song c = new Song("Kesariya Arijit", "Singh", "Pritam", null, "Brahmastra");
+
+        assertNotEquals(SongFingerprint.of(a), SongFingerprint.of(b));
+        assertNotEquals(SongFingerprint.of(a), SongFingerprint.of(c));
+    }
+
+    @Test
+    void treatsNullAsEmpty() {
+        assertEquals("", SongFingerprint.normalize(null));
+        assertEquals(SongFingerprint.of(new Song("Kesariya", null, null, null, null)),
+                SongFingerprint.of(new Song("Kesariya", "", null, null, "  ")));
+    }
+}
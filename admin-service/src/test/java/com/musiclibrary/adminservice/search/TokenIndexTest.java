@@ -0,0 +1,66 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenIndexTest {
+
+    @Test
+    void looksUpExactTokens() {
+        TokenIndex index = new TokenIndex();
+        index.add(1L, Tokenizer.tokenize("Tum Hi Ho"));
+        index.add(2L, Tokenizer.tokenize("Ho Gaya Hai Tujhko"));
+
+        assertEquals(Set.of(1L, 2L), index.lookup("ho"));
+        assertEquals(Set.of(1L), index.lookup("tum"));
+        assertTrue(index.lookup("hum").isEmpty());
+        assertEquals(2, index.documentFrequency("ho"));
+        assertEquals(2, index.documentCount());
+        assertEquals(Set.of(1L, 2L), index.lookupAll(List.of("tum", "gaya")));
+    }
+
+    @Test
+    void reportsFuzzyTermsWithTheirDistance() {
+        TokenIndex index = new TokenIndex();
+        index.add(1L, List.of("kesariya"));
+        index.add(2L, List.of("kesar"));
+        index.add(3L, List.of("mereya"));
+
+        assertEquals(Map.of("kesariya", 1), index.fuzzyTerms("kesraiya", 2));
+        assertEquals(Map.of("kesar", 0), index.fuzzyTerms("kesar", 0));
+        assertTrue(index.fuzzyTerms("kesr", 0).isEmpty());
+        assertEquals(Set.of(2L), index.lookupFuzzy("kesr", 1));
+    }
+
+    @Test
+    void removedDocumentsLeaveNoTerms() {
+        TokenIndex index = new TokenIndex();
+        index.add(1L, List.of("kesariya", "ishq"));
+        index.add(2L, List.of("ishq"));
+
+        index.remove(1L);
+
+        assertTrue(index.lookup("kesariya").isEmpty());
+        assertEquals(0, index.documentFrequency("kesariya"));
+        assertTrue(index.fuzzyTerms("kesariya", 1).isEmpty());
+        assertEquals(Set.of(2L), index.lookup("ishq"));
+        assertEquals(1, index.documentCount());
+    }
+
+    @Test
+    void readdingADocumentReplacesItsTokens() {
+        TokenIndex index = new TokenIndex();
+        index.add(1L, List.of("kesariya"));
+        index.add(1L, List.of("mereya"));
+
+        assertTrue(index.lookup("kesariya").isEmpty());
+        assertEquals(Set.of(1L), index.lookup("mereya"));
+        assertEquals(1, index.documentCount());
+    }
+}
@@ -0,0 +1,57 @@
+package com.musiclibrary.adminservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "Tum Hi Ho");
+        index.add(2L, "Channa Mereya");
+        index.add(3L, "Humma Humma");
+
+        assertEquals(Set.of(1L), index.search("hi h"));
+        assertEquals(Set.of(3L), index.search("UMMA"));
+        assertEquals(Set.of(2L), index.search("mereya"));
+    }
+
+    @Test
+    void rejectsDocumentsThatHaveTheTrigramsOutOfOrder() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "abc bca");
+
+        assertTrue(index.search("abca").isEmpty());
+        assertEquals(Set.of(1L), index.search("c bc"));
+    }
+
+    @Test
+    void shortTermsFallBackToAScan() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "Tum Hi Ho");
+        index.add(2L, "Kesariya");
+
+        assertEquals(Set.of(1L), index.search("hi"));
+        assertEquals(Set.of(1L, 2L), index.search(""));
+    }
+
+    @Test
+    void replacingAValueDropsTheOldTrigrams() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1L, "Kesariya");
+        index.add(1L, "Raataan Lambiyan");
+
+        assertTrue(index.search("kesar").isEmpty());
+        assertEquals(Set.of(1L), index.search("lambi"));
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertTrue(index.search("lambi").isEmpty());
+        assertEquals(0, index.size());
+    }
+}
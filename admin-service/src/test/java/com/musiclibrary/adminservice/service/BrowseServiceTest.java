@@ -0,0 +1,79 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BrowseServiceTest {
+
+    private final BrowseService service = new BrowseService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "locale", "en");
+        service.init();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void groupsOnlyChangeOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.index(song(1L));
+
+        assertTrue(service.getAlbums(null, 10).getGroups().isEmpty());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals("Brahmastra", service.getAlbums(null, 10).getGroups().get(0).getName());
+    }
+
+    @Test
+    void rolledBackRemovalsKeepTheGroup() {
+        service.index(song(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.remove(1L);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(1, service.getArtists(null, 10).getGroups().get(0).getSongCount());
+    }
+
+    @Test
+    void batchesAreAppliedTogetherAfterCommit() {
+        service.index(song(1L));
+        Song hidden = song(1L);
+        hidden.setIsVisible(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.indexAll(List.of(hidden, song(2L), song(3L)));
+
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        assertEquals(1, service.getArtists(null, 10).getGroups().get(0).getSongCount());
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+        assertEquals(2, service.getArtists(null, 10).getGroups().get(0).getSongCount());
+    }
+
+    private static Song song(Long id) {
+        Song song = new Song("Kesariya", "Arijit Singh", "Pritam", LocalDate.of(2022, 7, 17), "Brahmastra");
+        song.setId(id);
+        song.setIsVisible(true);
+        return song;
+    }
+}
@@ -0,0 +1,86 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.dto.SegmentManifestDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SegmentServiceTest {
+
+    private static final int FILE_BYTES = 4 * 1024 * 1024;
+
+    private final MediaStreamService mediaStreamService = mock(MediaStreamService.class);
+    private final SegmentService service = new SegmentService();
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.write(dir.resolve("song.mp3"), new byte[FILE_BYTES]);
+        when(mediaStreamService.resolve(any(Song.class))).thenReturn(file);
+        ReflectionTestUtils.setField(service, "mediaStreamService", mediaStreamService);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "segmentSeconds", 10);
+        ReflectionTestUtils.setField(service, "cacheMaxBytes", 1024L * 1024);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void segmentsFollowTheProbedDuration() throws Exception {
+        SegmentManifestDTO manifest = service.manifest(song("song.mp3", "song.mp3", 40.0));
+
+        assertEquals(4, manifest.getSegments().size());
+        assertEquals(40.0, manifest.getDurationSeconds());
+    }
+
+    @Test
+    void durationOfAnotherFileIsIgnored() throws Exception {
+        SegmentManifestDTO manifest = service.manifest(song("song.mp3", "old.mp3", 40.0));
+
+        // 1 MiB fallback segments
+        assertEquals(4, manifest.getSegments().size());
+        assertNull(manifest.getDurationSeconds());
+    }
+
+    @Test
+    void hugeDurationCannotExplodeTheManifest() throws Exception {
+        Path large = dir.resolve("large.mp3");
+        try (RandomAccessFile file = new RandomAccessFile(large.toFile(), "rw")) {
+            file.setLength(1024L * 1024 * 1024);
+        }
+        when(mediaStreamService.resolve(any(Song.class))).thenReturn(large);
+
+        SegmentManifestDTO manifest = service.manifest(song("large.mp3", "large.mp3", 1.0e9));
+
+        assertEquals(10_000, manifest.getSegments().size());
+    }
+
+    private static Song song(String filePath, String probedFilePath, Double durationSeconds) {
+        Song song = new Song();
+        song.setId(1L);
+        song.setFilePath(filePath);
+        song.setProbedFilePath(probedFilePath);
+        song.setDurationSeconds(durationSeconds);
+        return song;
+    }
+}
@@ -0,0 +1,107 @@
+package com.musiclibrary.adminservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.musiclibrary.adminservice.dto.ImportReportDTO;
+import com.musiclibrary.adminservice.entity.Song;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SongImportServiceTest {
+
+    private static final String HEADER = "name,singer,music_director,album_name,release_date,duration_minutes,file_path\n";
+
+    private final SongImportService service = new SongImportService();
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final SongIndexService songIndexService = mock(SongIndexService.class);
+    private final List<String> committed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<String> pending = new ArrayList<>();
+        doAnswer(invocation -> {
+            Song song = invocation.getArgument(0);
+            if (song.getName().startsWith("Broken")) {
+                throw new PersistenceException("value too long for column");
+            }
+            pending.add(song.getName());
+            return null;
+        }).when(entityManager).persist(any(Song.class));
+        when(songIndexService.findDuplicate(any())).thenReturn(null);
+        // Runs the callback and keeps the names persisted by transactions that completed
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            pending.clear();
+            Consumer<Object> callback = invocation.getArgument(0);
+            callback.accept(null);
+            committed.addAll(pending);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(service, "songIndexService", songIndexService);
+        ReflectionTestUtils.setField(service, "notificationOutboxService", mock(NotificationOutboxService.class));
+        ReflectionTestUtils.setField(service, "catalogSnapshotService", mock(CatalogSnapshotService.class));
+        ReflectionTestUtils.setField(service, "songChangeLogService", mock(SongChangeLogService.class));
+        ReflectionTestUtils.setField(service, "mediaProbeService", mock(MediaProbeService.class));
+        ReflectionTestUtils.setField(service, "browseService", mock(BrowseService.class));
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() throws Exception {
+        String csv = HEADER
+                + "First,Singer,Director,Album,2020-01-01,3,/music/1.mp3\n"
+                + "Broken,Singer,Director,Album,2020-01-01,3,/music/2.mp3\n"
+                + "Third,Singer,Director,Album,2020-01-01,3,/music/3.mp3\n";
+
+        ImportReportDTO report = importCsv(csv);
+
+        assertEquals(List.of("First", "Third"), committed);
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Could not be saved"));
+        verify(songIndexService, never()).index(argThat(song -> song.getName().startsWith("Broken")));
+    }
+
+    @Test
+    void overlongValuesAreRejectedBeforeSaving() throws Exception {
+        String csv = HEADER + "x".repeat(256) + ",Singer,Director,Album,2020-01-01,3,/music/1.mp3\n";
+
+        ImportReportDTO report = importCsv(csv);
+
+        assertTrue(committed.isEmpty());
+        assertEquals(1, report.getFailed());
+        assertEquals("Song name must be at most 255 characters", report.getErrors().get(0).getMessage());
+    }
+
+    private ImportReportDTO importCsv(String csv) throws Exception {
+        return service.importSongs(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                SongImportService.Format.CSV, false);
+    }
+}
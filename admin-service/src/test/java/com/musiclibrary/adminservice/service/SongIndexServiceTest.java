@@ -0,0 +1,90 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SongIndexServiceTest {
+
+    private final SongIndexService service = new SongIndexService();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void indexesRightAwayOutsideATransaction() {
+        service.index(song(1L));
+
+        assertEquals(1L, service.findDuplicate(song(2L)));
+        assertEquals(1, service.suggest("kes", 10).size());
+    }
+
+    @Test
+    void indexesOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.index(song(1L));
+
+        assertTrue(service.suggest("kes", 10).isEmpty());
+
+        commit();
+        assertEquals(1L, service.findDuplicate(song(2L)));
+        assertEquals(1, service.suggest("kes", 10).size());
+    }
+
+    @Test
+    void songsOfAnOpenTransactionAlreadyCountAsDuplicates() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.index(song(1L));
+
+        assertEquals(1L, service.findDuplicate(song(2L)));
+        assertNull(service.findDuplicate(song(1L)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertNull(service.findDuplicate(song(2L)));
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheIndex() {
+        service.index(song(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.remove(1L);
+        service.index(song(3L));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(1L, service.findDuplicate(song(2L)));
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static Song song(Long id) {
+        Song song = new Song("Kesariya", "Arijit Singh", "Pritam", LocalDate.of(2022, 7, 17), "Brahmastra");
+        song.setId(id);
+        song.setIsVisible(true);
+        return song;
+    }
+}
@@ -0,0 +1,59 @@
+package com.musiclibrary.adminservice.service;
+
+import com.musiclibrary.adminservice.entity.Song;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongUploadServiceTest {
+
+    private final SongService songService = mock(SongService.class);
+    private final MediaStreamService mediaStreamService = mock(MediaStreamService.class);
+    private final SongUploadService service = new SongUploadService();
+
+    @TempDir
+    Path root;
+
+    @BeforeEach
+    void setUp() {
+        Song song = new Song();
+        song.setId(1L);
+        when(songService.getSongById(1L)).thenReturn(song);
+        when(mediaStreamService.getRoot()).thenReturn(root);
+        ReflectionTestUtils.setField(service, "songService", songService);
+        ReflectionTestUtils.setField(service, "mediaStreamService", mediaStreamService);
+        ReflectionTestUtils.setField(service, "blobStoreService", mock(BlobStoreService.class));
+        ReflectionTestUtils.setField(service, "maxChunkBytes", 1024L);
+        ReflectionTestUtils.setField(service, "maxFileBytes", 4096L);
+    }
+
+    @Test
+    void chunkAtTotalDoesNotCreateAPartFile() {
+        assertThrows(IllegalArgumentException.class, () -> service.receiveChunk(1L, 10, 10, "song.mp3", 0,
+                new ByteArrayInputStream(new byte[0])));
+
+        assertFalse(Files.exists(root.resolve(".uploads")));
+    }
+
+    @Test
+    void chunkAtTotalLeavesAnUploadInProgressAlone() throws Exception {
+        Path part = Files.createDirectories(root.resolve(".uploads")).resolve("song-1-10.part");
+        Files.write(part, new byte[] { 1, 2, 3 });
+
+        assertThrows(IllegalArgumentException.class, () -> service.receiveChunk(1L, 10, 10, "song.mp3", 0,
+                new ByteArrayInputStream(new byte[0])));
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(part));
+    }
+}
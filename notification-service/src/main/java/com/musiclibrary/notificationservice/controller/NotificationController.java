@@ -32,6 +32,19 @@ public class NotificationController {
         }
     }
     
+    @PostMapping("/new-songs")
+    @Operation(summary = "Send new songs digest", description = "Send one notification to all users summarising a batch of newly added songs")
+    public ResponseEntity<String> sendNewSongsDigestNotification(
+            @RequestParam long count,
+            @RequestParam(required = false) List<String> highlights) {
+        try {
+            notificationService.sendNewSongsDigestNotification(count, highlights == null ? List.of() : highlights);
+            return ResponseEntity.ok("New songs digest notification sent successfully");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to send notification: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/pending")
     @Operation(summary = "Get pending notifications", description = "Retrieve all pending notifications")
     public ResponseEntity<List<Notification>> getPendingNotifications() {
@@ -75,6 +75,33 @@ public class NotificationService {
         }
     }
     
+    public void sendNewSongsDigestNotification(long count, List<String> highlights) {
+        List<String> userEmails = getUserEmails();
+        
+        StringBuilder highlightLines = new StringBuilder();
+        for (String highlight : highlights) {
+            highlightLines.append("- ").append(highlight).append("\n");
+        }
+        String subject = count + " New Songs Added to Music Library";
+        String message = String.format(
+            "Hello!\n\n%d new songs have been added to the music library, including:\n\n" +
+            "%s\n" +
+            "Check them out in the Music Library!\n\n" +
+            "Best regards,\nMusic Library Team",
+            count, highlightLines
+        );
+        
+        for (String email : userEmails) {
+            try {
+                Notification notification = createNotification(email, subject, message, NotificationType.NEW_SONG_ADDED);
+                sendNotification(notification);
+            } catch (Exception e) {
+                // Log error but continue with other users
+                System.err.println("Failed to send notification to " + email + ": " + e.getMessage());
+            }
+        }
+    }
+    
     public List<Notification> getPendingNotifications() {
         return notificationRepository.findByStatus(NotificationStatus.PENDING);
     }
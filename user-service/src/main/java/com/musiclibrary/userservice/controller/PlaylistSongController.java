@@ -3,6 +3,7 @@ package com.musiclibrary.userservice.controller;
 import com.musiclibrary.userservice.dto.AddSongRequest;
 import com.musiclibrary.userservice.dto.AddSongsRequest;
 import com.musiclibrary.userservice.entity.PlaylistSong;
+import com.musiclibrary.userservice.exception.SongLookupException;
 import com.musiclibrary.userservice.service.PlaylistSongService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/playlists")
@@ -37,12 +39,16 @@ public class PlaylistSongController {
     @PostMapping("/{playlistId}/songs/batch")
     @Operation(summary = "Add multiple songs to playlist", description = "Add multiple songs to a playlist in batch")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<PlaylistSong>> addSongsToPlaylist(
+    public ResponseEntity<?> addSongsToPlaylist(
             @PathVariable Long playlistId,
             @Valid @RequestBody AddSongsRequest request
     ) {
-        List<PlaylistSong> created = playlistSongService.addSongsToPlaylist(playlistId, request.getSongIds());
-        return new ResponseEntity<>(created, HttpStatus.CREATED);
+        try {
+            List<PlaylistSong> created = playlistSongService.addSongsToPlaylist(playlistId, request.getSongIds());
+            return new ResponseEntity<>(created, HttpStatus.CREATED);
+        } catch (SongLookupException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Legacy endpoint for backward compatibility
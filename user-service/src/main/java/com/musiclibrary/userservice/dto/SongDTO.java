@@ -10,6 +10,7 @@ public class SongDTO {
     private LocalDate releaseDate;
     private String albumName;
     private Integer durationMinutes;
+    private Double durationSeconds;
     private String filePath;
     private Boolean isVisible;
 
@@ -87,6 +88,14 @@ public class SongDTO {
         this.durationMinutes = durationMinutes;
     }
 
+    public Double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Double durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
     public String getFilePath() {
         return filePath;
     }
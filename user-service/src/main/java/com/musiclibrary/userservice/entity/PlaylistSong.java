@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
 @Table(name = "playlist_songs")
 public class PlaylistSong {
     
+    // Pooled sequence rather than IDENTITY so batch adds can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "playlist_song_seq")
+    @SequenceGenerator(name = "playlist_song_seq", sequenceName = "playlist_songs_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
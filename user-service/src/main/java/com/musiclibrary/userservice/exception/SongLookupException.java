@@ -0,0 +1,7 @@
+package com.musiclibrary.userservice.exception;
+
+public class SongLookupException extends RuntimeException {
+    public SongLookupException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,6 +2,8 @@ package com.musiclibrary.userservice.repository;
 
 import com.musiclibrary.userservice.entity.PlaylistSong;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -12,4 +14,11 @@ public interface PlaylistSongRepository extends JpaRepository<PlaylistSong, Long
     void deleteByPlaylistIdAndSongId(Long playlistId, Long songId);
     boolean existsByPlaylistIdAndSongId(Long playlistId, Long songId);
     int countByPlaylistId(Long playlistId);
+    
+    @Query("SELECT ps.songId FROM PlaylistSong ps WHERE ps.playlist.id = :playlistId")
+    List<Long> findSongIdsByPlaylistId(@Param("playlistId") Long playlistId);
+
+    // Track rows as (id, songId, songName, addedAt) in insertion order, without loading entities
+    @Query("SELECT ps.id, ps.songId, ps.songName, ps.addedAt FROM PlaylistSong ps WHERE ps.playlist.id = :playlistId ORDER BY ps.id")
+    List<Object[]> findTracksByPlaylistId(@Param("playlistId") Long playlistId);
 }
@@ -38,6 +38,13 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Token for calls from this service to admin-service endpoints that need the SERVICE role
+     */
+    public String generateServiceToken() {
+        return generateToken("user-service", Map.of("role", "SERVICE"));
+    }
+
     public Claims parseClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(signingKey())
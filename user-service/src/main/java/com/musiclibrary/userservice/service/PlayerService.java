@@ -2,10 +2,8 @@ package com.musiclibrary.userservice.service;
 
 import com.musiclibrary.userservice.dto.PlayerStateDTO;
 import com.musiclibrary.userservice.entity.Playlist;
-import com.musiclibrary.userservice.entity.PlaylistSong;
 import com.musiclibrary.userservice.exception.PlaylistNotFoundException;
 import com.musiclibrary.userservice.repository.PlaylistRepository;
-import com.musiclibrary.userservice.repository.PlaylistSongRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +16,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PlayerService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlayerService.class);
+    private static final int DEFAULT_DURATION_SECONDS = 180;
     
     // In-memory storage for player states (in production, use Redis or database)
     private final Map<Long, PlayerStateDTO> playerStates = new ConcurrentHashMap<>();
@@ -27,11 +26,14 @@ public class PlayerService {
     private PlaylistRepository playlistRepository;
 
     @Autowired
-    private PlaylistSongRepository playlistSongRepository;
+    private PlaylistTrackService playlistTrackService;
+
+    @Autowired
+    private SegmentPrefetchService segmentPrefetchService;
 
     public PlayerStateDTO playPlaylist(Long playlistId) {
         PlayerStateDTO state = getOrCreatePlayerState(playlistId);
-        List<PlaylistSong> songs = playlistSongRepository.findByPlaylistId(playlistId);
+        PlaylistTrackService.Tracks songs = playlistTrackService.getTracks(playlistId);
         
         if (songs.isEmpty()) {
             logger.warn("Playlist {} has no songs", playlistId);
@@ -53,7 +55,7 @@ public class PlayerService {
 
     public PlayerStateDTO playSong(Long playlistId, int songIndex) {
         PlayerStateDTO state = getOrCreatePlayerState(playlistId);
-        List<PlaylistSong> songs = playlistSongRepository.findByPlaylistId(playlistId);
+        PlaylistTrackService.Tracks songs = playlistTrackService.getTracks(playlistId);
         
         if (songIndex < 0 || songIndex >= songs.size()) {
             logger.warn("Invalid song index {} for playlist {}", songIndex, playlistId);
@@ -90,7 +92,7 @@ public class PlayerService {
 
     public PlayerStateDTO nextSong(Long playlistId) {
         PlayerStateDTO state = getOrCreatePlayerState(playlistId);
-        List<PlaylistSong> songs = playlistSongRepository.findByPlaylistId(playlistId);
+        PlaylistTrackService.Tracks songs = playlistTrackService.getTracks(playlistId);
         
         if (songs.isEmpty()) {
             return state;
@@ -107,7 +109,7 @@ public class PlayerService {
 
     public PlayerStateDTO previousSong(Long playlistId) {
         PlayerStateDTO state = getOrCreatePlayerState(playlistId);
-        List<PlaylistSong> songs = playlistSongRepository.findByPlaylistId(playlistId);
+        PlaylistTrackService.Tracks songs = playlistTrackService.getTracks(playlistId);
         
         if (songs.isEmpty()) {
             return state;
@@ -175,12 +177,18 @@ public class PlayerService {
         });
     }
 
-    private void updateCurrentSong(PlayerStateDTO state, List<PlaylistSong> songs) {
+    private void updateCurrentSong(PlayerStateDTO state, PlaylistTrackService.Tracks songs) {
         if (state.getCurrentSongIndex() >= 0 && state.getCurrentSongIndex() < songs.size()) {
-            PlaylistSong currentSong = songs.get(state.getCurrentSongIndex());
-            state.setCurrentSong(currentSong);
-            // Set a default duration (in a real app, this would come from the audio file)
-            state.setDuration(180); // 3 minutes default
+            state.setCurrentSong(songs.toPlaylistSong(state.getCurrentSongIndex()));
+            int duration = songs.getDurationSeconds(state.getCurrentSongIndex());
+            // 3 minutes when the duration is not known (yet)
+            state.setDuration(duration > 0 ? duration : DEFAULT_DURATION_SECONDS);
+
+            // Warm the admin service's segment cache so the next track starts from memory
+            int nextIndex = calculateNextSongIndex(state, songs.size());
+            if (nextIndex != state.getCurrentSongIndex() && nextIndex >= 0 && nextIndex < songs.size()) {
+                segmentPrefetchService.prefetch(songs.getSongId(nextIndex));
+            }
         }
     }
 
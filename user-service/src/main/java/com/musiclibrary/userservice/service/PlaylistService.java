@@ -26,6 +26,9 @@ public class PlaylistService {
     @Autowired
     private PlaylistSongRepository playlistSongRepository;
     
+    @Autowired
+    private PlaylistTrackService playlistTrackService;
+    
     public Playlist createPlaylist(Long userId, Playlist playlist) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
@@ -65,6 +68,7 @@ public class PlaylistService {
     public void deletePlaylist(Long id) {
         Playlist playlist = getPlaylistById(id);
         playlistRepository.delete(playlist);
+        playlistTrackService.invalidate(id);
     }
     
     public List<PlaylistStatsDTO> getPlaylistStats(Long userId) {
@@ -12,10 +12,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PlaylistSongService {
@@ -31,6 +35,12 @@ public class PlaylistSongService {
     @Autowired
     private SongValidationService songValidationService;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlaylistTrackService playlistTrackService;
+
     /**
      * Add a single song to playlist with validation
      */
@@ -54,7 +64,9 @@ public class PlaylistSongService {
         PlaylistSong playlistSong = new PlaylistSong(playlist, songId, songDetails.getName());
 
         logger.info("Adding song {} to playlist {}", songId, playlistId);
-        return playlistSongRepository.save(playlistSong);
+        PlaylistSong saved = playlistSongRepository.save(playlistSong);
+        playlistTrackService.added(playlistId, List.of(saved));
+        return saved;
     }
 
     /**
@@ -65,41 +77,42 @@ public class PlaylistSongService {
     }
 
     /**
-     * Add multiple songs to playlist in batch
+     * Add multiple songs to playlist in batch. All songs are validated with batched admin-service
+     * calls before any transaction starts; the surviving rows are then inserted as one JDBC batch.
+     * Unknown, hidden and already present songs are skipped. If the songs cannot be validated,
+     * a SongLookupException is thrown and nothing is added.
      */
-    @Transactional
     public List<PlaylistSong> addSongsToPlaylist(Long playlistId, List<Long> songIds) {
         // 1. Validate playlist exists
-        Playlist playlist = playlistRepository.findById(playlistId)
-                .orElseThrow(() -> new PlaylistNotFoundException("Playlist not found with id: " + playlistId));
+        if (!playlistRepository.existsById(playlistId)) {
+            throw new PlaylistNotFoundException("Playlist not found with id: " + playlistId);
+        }
 
-        List<PlaylistSong> addedSongs = new ArrayList<>();
-        List<Long> failedSongs = new ArrayList<>();
-
-        for (Long songId : songIds) {
-            try {
-                // Check if song is available and not already in playlist
-                if (songValidationService.isSongAvailable(songId) && 
-                    !playlistSongRepository.existsByPlaylistIdAndSongId(playlistId, songId)) {
-                    
-                    SongDTO songDetails = songValidationService.getSongDetails(songId);
-                    PlaylistSong playlistSong = new PlaylistSong(playlist, songId, songDetails.getName());
-                    addedSongs.add(playlistSongRepository.save(playlistSong));
-                    
-                    logger.info("Successfully added song {} to playlist {}", songId, playlistId);
-                } else {
-                    logger.warn("Skipping song {} - already exists in playlist or not available", songId);
+        // 2. Validate the whole batch remotely, outside the transaction; fails rather than skipping everything
+        Set<Long> requested = new LinkedHashSet<>(songIds);
+        Map<Long, SongDTO> available = songValidationService.getSongsByIds(requested);
+
+        // 3. Skip songs already in the playlist and insert the rest
+        List<PlaylistSong> addedSongs = transactionTemplate.execute(status -> {
+            Playlist playlist = playlistRepository.getReferenceById(playlistId);
+            Set<Long> existing = new HashSet<>(playlistSongRepository.findSongIdsByPlaylistId(playlistId));
+            List<PlaylistSong> toAdd = new ArrayList<>();
+            for (Long songId : requested) {
+                SongDTO song = available.get(songId);
+                if (song == null || !Boolean.TRUE.equals(song.getIsVisible()) || existing.contains(songId)) {
+                    continue;
                 }
-            } catch (Exception e) {
-                logger.error("Failed to add song {} to playlist {}: {}", songId, playlistId, e.getMessage());
-                failedSongs.add(songId);
+                toAdd.add(new PlaylistSong(playlist, songId, song.getName()));
             }
-        }
+            return playlistSongRepository.saveAll(toAdd);
+        });
+        playlistTrackService.added(playlistId, addedSongs);
 
-        if (!failedSongs.isEmpty()) {
-            logger.warn("Failed to add {} songs to playlist {}: {}", failedSongs.size(), playlistId, failedSongs);
+        int skipped = requested.size() - addedSongs.size();
+        if (skipped > 0) {
+            logger.warn("Skipped {} songs for playlist {} - already in playlist or not available", skipped, playlistId);
         }
-
+        logger.info("Added {} songs to playlist {}", addedSongs.size(), playlistId);
         return addedSongs;
     }
 
@@ -118,6 +131,7 @@ public class PlaylistSongService {
             return; // idempotent delete
         }
         playlistSongRepository.deleteByPlaylistIdAndSongId(playlistId, songId);
+        playlistTrackService.invalidate(playlistId);
     }
 
     public void clearPlaylist(Long playlistId) {
@@ -126,6 +140,7 @@ public class PlaylistSongService {
                 .orElseThrow(() -> new PlaylistNotFoundException("Playlist not found with id: " + playlistId));
         List<PlaylistSong> songs = playlistSongRepository.findByPlaylistId(playlist.getId());
         playlistSongRepository.deleteAll(songs);
+        playlistTrackService.invalidate(playlistId);
     }
 }
 
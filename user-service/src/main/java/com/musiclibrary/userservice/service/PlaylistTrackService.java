@@ -0,0 +1,218 @@
+package com.musiclibrary.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musiclibrary.userservice.entity.PlaylistSong;
+import com.musiclibrary.userservice.exception.SongLookupException;
+import com.musiclibrary.userservice.repository.PlaylistSongRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Track lists of recently played playlists, held as parallel arrays so player navigation is an
+ * array lookup rather than a query. The cache is bounded by total track count; additions are
+ * appended to a cached list in place and any other change drops it, to be reloaded on next use.
+ * Song durations are fetched in one batch when a list is loaded or appended to, so they are as
+ * fresh as the list: a duration probed later shows up once the list is reloaded.
+ */
+@Service
+public class PlaylistTrackService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaylistTrackService.class);
+
+    private Cache<Long, Tracks> tracksCache;
+
+    @Autowired
+    private PlaylistSongRepository playlistSongRepository;
+
+    @Autowired
+    private SongValidationService songValidationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${playlist-tracks.max-tracks:200000}")
+    private long maxTracks;
+
+    @Value("${playlist-tracks.expire-after-access-minutes:30}")
+    private long expireAfterAccessMinutes;
+
+    @PostConstruct
+    void initCache() {
+        tracksCache = Caffeine.newBuilder()
+                .maximumWeight(maxTracks)
+                .weigher((Long playlistId, Tracks tracks) -> tracks.size() + 1)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tracksCache, "playlistTracks");
+    }
+
+    public Tracks getTracks(Long playlistId) {
+        return tracksCache.get(playlistId, this::loadTracks);
+    }
+
+    /**
+     * Append newly saved rows to the playlist's cached tracks, if it is cached
+     */
+    public void added(Long playlistId, List<PlaylistSong> songs) {
+        if (songs.isEmpty() || tracksCache.getIfPresent(playlistId) == null) {
+            return;
+        }
+        Map<Long, Integer> durations = durationsOf(songs.stream()
+                .map(PlaylistSong::getSongId)
+                .collect(Collectors.toSet()));
+        tracksCache.asMap().computeIfPresent(playlistId, (id, tracks) -> tracks.append(songs, durations));
+    }
+
+    public void invalidate(Long playlistId) {
+        tracksCache.invalidate(playlistId);
+    }
+
+    private Tracks loadTracks(Long playlistId) {
+        List<Object[]> rows = playlistSongRepository.findTracksByPlaylistId(playlistId);
+        int size = rows.size();
+        long[] ids = new long[size];
+        long[] songIds = new long[size];
+        String[] names = new String[size];
+        LocalDateTime[] addedAt = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            songIds[i] = (Long) row[1];
+            names[i] = (String) row[2];
+            addedAt[i] = (LocalDateTime) row[3];
+        }
+        Map<Long, Integer> durationsBySong = durationsOf(Arrays.stream(songIds).boxed().collect(Collectors.toSet()));
+        int[] durations = new int[size];
+        for (int i = 0; i < size; i++) {
+            durations[i] = durationsBySong.getOrDefault(songIds[i], 0);
+        }
+        return new Tracks(ids, songIds, names, addedAt, durations);
+    }
+
+    // Probed durations in whole seconds; songs that are hidden, unprobed or could not be looked up are left out
+    private Map<Long, Integer> durationsOf(Set<Long> songIds) {
+        Map<Long, Integer> durations = new HashMap<>();
+        if (songIds.isEmpty()) {
+            return durations;
+        }
+        try {
+            songValidationService.getSongsByIds(songIds).forEach((songId, song) -> {
+                if (song.getDurationSeconds() != null) {
+                    durations.put(songId, (int) Math.round(song.getDurationSeconds()));
+                }
+            });
+        } catch (SongLookupException e) {
+            logger.warn("Could not look up durations for {} songs. Error: {}", songIds.size(), e.getMessage());
+        }
+        return durations;
+    }
+
+    /**
+     * Immutable snapshot of a playlist's tracks in insertion order
+     */
+    public static final class Tracks {
+        private final long[] ids;
+        private final long[] songIds;
+        private final String[] names;
+        private final LocalDateTime[] addedAt;
+        // Whole seconds, 0 when not known
+        private final int[] durations;
+
+        private Tracks(long[] ids, long[] songIds, String[] names, LocalDateTime[] addedAt, int[] durations) {
+            this.ids = ids;
+            this.songIds = songIds;
+            this.names = names;
+            this.addedAt = addedAt;
+            this.durations = durations;
+        }
+
+        public int size() {
+            return songIds.length;
+        }
+
+        public boolean isEmpty() {
+            return songIds.length == 0;
+        }
+
+        public long getSongId(int index) {
+            return songIds[index];
+        }
+
+        /**
+         * Duration of the track at the given index in seconds, or 0 when it is not known
+         */
+        public int getDurationSeconds(int index) {
+            return durations[index];
+        }
+
+        /**
+         * Detached row for the track at the given index; its playlist is not set
+         */
+        public PlaylistSong toPlaylistSong(int index) {
+            PlaylistSong song = new PlaylistSong(null, songIds[index], names[index]);
+            song.setId(ids[index]);
+            song.setAddedAt(addedAt[index]);
+            return song;
+        }
+
+        // Rows are kept in id order. A row already present is skipped: the entry may have been
+        // reloaded after the row committed, before the caller got to append it
+        private Tracks append(List<PlaylistSong> songs, Map<Long, Integer> durationsBySong) {
+            List<PlaylistSong> missing = new ArrayList<>(songs.size());
+            for (PlaylistSong song : songs) {
+                if (Arrays.binarySearch(ids, song.getId()) < 0) {
+                    missing.add(song);
+                }
+            }
+            if (missing.isEmpty()) {
+                return this;
+            }
+            missing.sort(Comparator.comparing(PlaylistSong::getId));
+            int newSize = size() + missing.size();
+            long[] newIds = new long[newSize];
+            long[] newSongIds = new long[newSize];
+            String[] newNames = new String[newSize];
+            LocalDateTime[] newAddedAt = new LocalDateTime[newSize];
+            int[] newDurations = new int[newSize];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < newSize; k++) {
+                if (j == missing.size() || (i < ids.length && ids[i] < missing.get(j).getId())) {
+                    newIds[k] = ids[i];
+                    newSongIds[k] = songIds[i];
+                    newNames[k] = names[i];
+                    newAddedAt[k] = addedAt[i];
+                    newDurations[k] = durations[i];
+                    i++;
+                } else {
+                    PlaylistSong song = missing.get(j++);
+                    newIds[k] = song.getId();
+                    newSongIds[k] = song.getSongId();
+                    newNames[k] = song.getSongName();
+                    newAddedAt[k] = song.getAddedAt();
+                    newDurations[k] = durationsBySong.getOrDefault(song.getSongId(), 0);
+                }
+            }
+            return new Tracks(newIds, newSongIds, newNames, newAddedAt, newDurations);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.musiclibrary.userservice.service;
+
+import com.musiclibrary.userservice.security.JwtUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asks the admin service to warm its segment cache with the first segment of a song that is
+ * about to play, authenticated with a service token. Best effort: requests run in the background
+ * and are dropped when the queue is full.
+ */
+@Service
+public class SegmentPrefetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentPrefetchService.class);
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(64),
+            runnable -> {
+                Thread thread = new Thread(runnable, "segment-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${admin-service.url:http://localhost:9001}")
+    private String adminServiceUrl;
+
+    public void prefetch(Long songId) {
+        if (songId == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setBearerAuth(jwtUtil.generateServiceToken());
+                    restTemplate.postForEntity(adminServiceUrl + "/api/songs/" + songId + "/segments/prefetch",
+                            new HttpEntity<>(headers), Void.class);
+                } catch (Exception e) {
+                    logger.debug("Segment prefetch for songId: {} failed. Error: {}", songId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Segment prefetch queue full, skipping songId: {}", songId);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package com.musiclibrary.userservice.service;
+
+import com.musiclibrary.userservice.dto.VisibleSongIdsDTO;
+import com.musiclibrary.userservice.security.JwtUtil;
+import com.musiclibrary.userservice.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bloom filter of visible song ids, rebuilt periodically from the admin service, so repeated
+ * lookups of ids that cannot exist are rejected without a remote call.
+ *
+ * Ids above the snapshot's max id, or within recent-id-window below it, are always treated as
+ * possible: song ids come from a pooled sequence and imports hold a chunk of ids until it
+ * commits, so a song committed after the snapshot can have an id a little below its max id.
+ * A snapshot can still miss songs made visible after it was read, so a negative is not final:
+ * the first lookup of a rejected id after each rebuild is let through to the admin service,
+ * and only later ones are rejected locally. Until the first successful build every id is possible.
+ */
+@Service
+public class SongIdFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongIdFilterService.class);
+
+    private volatile Snapshot snapshot;
+    private Counter rejections;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admin-service.url:http://localhost:9001}")
+    private String adminServiceUrl;
+
+    @Value("${song-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Ids this close below the snapshot's max id may still be committing and bypass the filter
+    @Value("${song-filter.recent-id-window:1000}")
+    private long recentIdWindow;
+
+    // Bounds the ids remembered as already looked up since the last rebuild
+    @Value("${song-filter.max-fallback-ids:100000}")
+    private int maxFallbackIds;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @PostConstruct
+    void initMetrics() {
+        rejections = Counter.builder("song.filter.rejections")
+                .description("Song lookups rejected locally by the id filter")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${song-filter.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(jwtUtil.generateServiceToken());
+            VisibleSongIdsDTO visible = restTemplate.exchange(adminServiceUrl + "/api/songs/visible/ids",
+                    HttpMethod.GET, new HttpEntity<>(headers), VisibleSongIdsDTO.class).getBody();
+            if (visible == null || visible.getIds() == null) {
+                return;
+            }
+            BloomFilter filter = new BloomFilter(visible.getIds().size(), falsePositiveRate);
+            for (Long id : visible.getIds()) {
+                filter.put(id);
+            }
+            snapshot = new Snapshot(filter, visible.getMaxId());
+            logger.info("Rebuilt song id filter with {} ids ({} bits, {} hashes)",
+                    visible.getIds().size(), filter.getBitCount(), filter.getHashCount());
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild song id filter, keeping the previous one. Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * False when the song is not in the current snapshot and has already been looked up
+     * since it was built
+     */
+    public boolean mightExist(Long songId) {
+        if (songId == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (current == null || songId > current.maxId - recentIdWindow || current.filter.mightContain(songId)) {
+            return true;
+        }
+        if (current.fallbackIds.size() >= maxFallbackIds) {
+            // Forgetting grants the ids another lookup, which is safe; rejecting them would not be
+            current.fallbackIds.clear();
+        }
+        if (current.fallbackIds.add(songId)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    private static final class Snapshot {
+        final BloomFilter filter;
+        final long maxId;
+        // Ids outside the filter that were let through once since this snapshot was built
+        final Set<Long> fallbackIds = ConcurrentHashMap.newKeySet();
+
+        Snapshot(BloomFilter filter, long maxId) {
+            this.filter = filter;
+            this.maxId = maxId;
+        }
+    }
+}
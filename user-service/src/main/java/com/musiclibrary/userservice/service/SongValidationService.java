@@ -1,7 +1,16 @@
 package com.musiclibrary.userservice.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.musiclibrary.userservice.dto.SongDTO;
+import com.musiclibrary.userservice.exception.SongLookupException;
 import com.musiclibrary.userservice.exception.SongNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,25 +19,106 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Song lookups against the admin service through a local cache. Entries are bounded in
+ * number, expire after a TTL and are refreshed in the background once they pass the refresh
+ * interval, so popular songs never block on a remote call. Unknown and hidden ids are cached
+ * as empty entries with a shorter TTL; failed loads are not cached.
+ */
 @Service
 public class SongValidationService {
     
     private static final Logger logger = LoggerFactory.getLogger(SongValidationService.class);
     
+    // Most ids the admin service accepts in one batch lookup
+    private static final int MAX_BATCH_IDS = 1000;
+    
+    private LoadingCache<Long, Optional<SongDTO>> songCache;
+    
     @Autowired
     private RestTemplate restTemplate;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private SongIdFilterService songIdFilterService;
+    
     @Value("${admin-service.url:http://localhost:9001}")
     private String adminServiceUrl;
     
+    @Value("${song-cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${song-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    @Value("${song-cache.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+    
+    @Value("${song-cache.refresh-seconds:120}")
+    private long refreshSeconds;
+    
+    @PostConstruct
+    void initCache() {
+        long ttl = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtl = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        songCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Optional<SongDTO>>() {
+                    @Override
+                    public long expireAfterCreate(Long songId, Optional<SongDTO> song, long currentTime) {
+                        return song.isPresent() ? ttl : negativeTtl;
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(Long songId, Optional<SongDTO> song, long currentTime, long currentDuration) {
+                        return song.isPresent() ? ttl : negativeTtl;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(Long songId, Optional<SongDTO> song, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .recordStats()
+                .build(new CacheLoader<Long, Optional<SongDTO>>() {
+                    @Override
+                    public Optional<SongDTO> load(Long songId) {
+                        return fetchSongs(Set.of(songId)).get(songId);
+                    }
+                    
+                    @Override
+                    public Map<Long, Optional<SongDTO>> loadAll(Set<? extends Long> songIds) {
+                        return fetchSongs(songIds);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, songCache, "songs");
+        Gauge.builder("cache.hit.ratio", songCache, cache -> cache.stats().hitRate())
+                .tag("cache", "songs")
+                .description("Fraction of song lookups served from the local cache")
+                .register(meterRegistry);
+    }
+    
     /**
-     * Check if a song exists in the admin service
+     * Check if a song exists and is visible in the admin service
      */
     public boolean songExists(Long songId) {
+        if (!songIdFilterService.mightExist(songId)) {
+            return false;
+        }
         try {
-            String url = adminServiceUrl + "/api/songs/" + songId;
-            ResponseEntity<Object> response = restTemplate.getForEntity(url, Object.class);
-            return response.getStatusCode().is2xxSuccessful();
+            return songCache.get(songId).isPresent();
         } catch (Exception e) {
             logger.warn("Failed to validate song existence for songId: {}. Error: {}", songId, e.getMessage());
             return false;
@@ -39,19 +129,17 @@ public class SongValidationService {
      * Get song details from the admin service
      */
     public SongDTO getSongDetails(Long songId) {
+        if (!songIdFilterService.mightExist(songId)) {
+            throw new SongNotFoundException("Song not found with id: " + songId);
+        }
+        Optional<SongDTO> song;
         try {
-            String url = adminServiceUrl + "/api/songs/" + songId;
-            ResponseEntity<SongDTO> response = restTemplate.getForEntity(url, SongDTO.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return response.getBody();
-            } else {
-                throw new SongNotFoundException("Song not found with id: " + songId);
-            }
+            song = songCache.get(songId);
         } catch (Exception e) {
             logger.error("Failed to fetch song details for songId: {}. Error: {}", songId, e.getMessage());
             throw new SongNotFoundException("Song not found with id: " + songId);
         }
+        return song.orElseThrow(() -> new SongNotFoundException("Song not found with id: " + songId));
     }
     
     /**
@@ -66,4 +154,51 @@ public class SongValidationService {
             return false;
         }
     }
+    
+    /**
+     * Get the visible songs among the given ids. Ids ruled out by the id filter and cached ids
+     * are answered locally; the rest are fetched from the admin service in batches. Ids
+     * missing from the result are unknown or hidden.
+     *
+     * @throws SongLookupException if the admin service could not be asked
+     */
+    public Map<Long, SongDTO> getSongsByIds(Collection<Long> songIds) {
+        Map<Long, SongDTO> songs = new HashMap<>();
+        List<Long> candidates = songIds.stream()
+                .filter(songIdFilterService::mightExist)
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return songs;
+        }
+        try {
+            songCache.getAll(candidates).forEach((songId, song) -> song.ifPresent(s -> songs.put(songId, s)));
+        } catch (Exception e) {
+            logger.warn("Failed to fetch {} songs in batch. Error: {}", songIds.size(), e.getMessage());
+            throw new SongLookupException("Song lookup failed: " + e.getMessage(), e);
+        }
+        return songs;
+    }
+    
+    // One admin-service call per MAX_BATCH_IDS ids; every requested id gets an entry, empty when not visible
+    private Map<Long, Optional<SongDTO>> fetchSongs(Collection<? extends Long> songIds) {
+        List<Long> ids = List.copyOf(songIds);
+        Map<Long, Optional<SongDTO>> songs = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_IDS) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + MAX_BATCH_IDS));
+            String url = adminServiceUrl + "/api/songs/batch";
+            ResponseEntity<SongDTO[]> response = restTemplate.postForEntity(url, batch, SongDTO[].class);
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                throw new IllegalStateException("Unexpected response from admin service: " + response.getStatusCode());
+            }
+            for (Long songId : batch) {
+                songs.put(songId, Optional.empty());
+            }
+            for (SongDTO song : response.getBody()) {
+                if (Boolean.TRUE.equals(song.getIsVisible())) {
+                    songs.put(song.getId(), Optional.of(song));
+                }
+            }
+        }
+        return songs;
+    }
 }
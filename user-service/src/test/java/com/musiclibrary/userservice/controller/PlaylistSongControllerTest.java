@@ -0,0 +1,59 @@
+package com.musiclibrary.userservice.controller;
+
+import com.musiclibrary.userservice.config.SecurityConfig;
+import com.musiclibrary.userservice.exception.SongLookupException;
+import com.musiclibrary.userservice.security.JwtUtil;
+import com.musiclibrary.userservice.service.PlaylistSongService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = PlaylistSongController.class, properties = "spring.cloud.config.enabled=false")
+@Import(SecurityConfig.class)
+class PlaylistSongControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PlaylistSongService playlistSongService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void batchAddReturnsCreated() throws Exception {
+        when(playlistSongService.addSongsToPlaylist(eq(1L), anyList())).thenReturn(List.of());
+
+        mockMvc.perform(post("/api/playlists/1/songs/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"songIds\":[1,2,3]}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void batchAddIsUnavailableWhenSongsCannotBeLookedUp() throws Exception {
+        when(playlistSongService.addSongsToPlaylist(eq(1L), anyList()))
+                .thenThrow(new SongLookupException("Song lookup failed", new RuntimeException("connection refused")));
+
+        mockMvc.perform(post("/api/playlists/1/songs/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"songIds\":[1,2,3]}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Song lookup failed"));
+    }
+}
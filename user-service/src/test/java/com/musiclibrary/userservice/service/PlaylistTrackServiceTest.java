@@ -0,0 +1,136 @@
+package com.musiclibrary.userservice.service;
+
+import com.musiclibrary.userservice.dto.SongDTO;
+import com.musiclibrary.userservice.entity.PlaylistSong;
+import com.musiclibrary.userservice.exception.SongLookupException;
+import com.musiclibrary.userservice.repository.PlaylistSongRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlaylistTrackServiceTest {
+
+    private final PlaylistSongRepository playlistSongRepository = mock(PlaylistSongRepository.class);
+    private final SongValidationService songValidationService = mock(SongValidationService.class);
+    private final PlaylistTrackService service = new PlaylistTrackService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "playlistSongRepository", playlistSongRepository);
+        ReflectionTestUtils.setField(service, "songValidationService", songValidationService);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxTracks", 1000L);
+        ReflectionTestUtils.setField(service, "expireAfterAccessMinutes", 30L);
+        service.initCache();
+    }
+
+    @Test
+    void appendsToACachedPlaylist() {
+        when(playlistSongRepository.findTracksByPlaylistId(1L)).thenReturn(rows(10L, 11L));
+        service.getTracks(1L);
+
+        service.added(1L, List.of(track(12L, 300L)));
+
+        assertEquals(List.of(100L, 110L, 300L), songIds(service.getTracks(1L)));
+        verify(playlistSongRepository, times(1)).findTracksByPlaylistId(1L);
+    }
+
+    @Test
+    void skipsRowsTheReloadAlreadyPickedUp() {
+        // The entry was loaded after row 12 committed but before the caller appended it
+        when(playlistSongRepository.findTracksByPlaylistId(1L)).thenReturn(rows(10L, 11L, 12L));
+        service.getTracks(1L);
+
+        service.added(1L, List.of(track(12L, 120L)));
+
+        assertEquals(List.of(100L, 110L, 120L), songIds(service.getTracks(1L)));
+    }
+
+    @Test
+    void mergesRowsThatCommitOutOfIdOrder() {
+        when(playlistSongRepository.findTracksByPlaylistId(1L)).thenReturn(rows(10L, 12L));
+        service.getTracks(1L);
+
+        service.added(1L, List.of(track(13L, 130L), track(11L, 110L)));
+
+        PlaylistTrackService.Tracks tracks = service.getTracks(1L);
+        assertEquals(List.of(100L, 110L, 120L, 130L), songIds(tracks));
+        assertEquals(11L, tracks.toPlaylistSong(1).getId());
+    }
+
+    @Test
+    void ignoresPlaylistsThatAreNotCached() {
+        service.added(2L, List.of(track(20L, 200L)));
+        when(playlistSongRepository.findTracksByPlaylistId(2L)).thenReturn(rows(20L));
+
+        assertEquals(List.of(200L), songIds(service.getTracks(2L)));
+    }
+
+    @Test
+    void keepsDurationsWithTheTracks() {
+        when(playlistSongRepository.findTracksByPlaylistId(1L)).thenReturn(rows(10L, 11L));
+        when(songValidationService.getSongsByIds(Set.of(100L, 110L))).thenReturn(Map.of(100L, song(100L, 241.6)));
+        when(songValidationService.getSongsByIds(Set.of(120L))).thenReturn(Map.of(120L, song(120L, 95.0)));
+        service.getTracks(1L);
+
+        service.added(1L, List.of(track(12L, 120L)));
+
+        PlaylistTrackService.Tracks tracks = service.getTracks(1L);
+        assertEquals(242, tracks.getDurationSeconds(0));
+        assertEquals(0, tracks.getDurationSeconds(1));
+        assertEquals(95, tracks.getDurationSeconds(2));
+    }
+
+    @Test
+    void unknownDurationsWhenTheLookupFails() {
+        when(playlistSongRepository.findTracksByPlaylistId(1L)).thenReturn(rows(10L));
+        when(songValidationService.getSongsByIds(any())).thenThrow(new SongLookupException("down", null));
+
+        assertEquals(0, service.getTracks(1L).getDurationSeconds(0));
+    }
+
+    private static SongDTO song(Long id, Double durationSeconds) {
+        SongDTO song = new SongDTO();
+        song.setId(id);
+        song.setDurationSeconds(durationSeconds);
+        return song;
+    }
+
+    // Rows for the given track ids, each playing song id * 10
+    private static List<Object[]> rows(Long... ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long id : ids) {
+            rows.add(new Object[] { id, id * 10, "Song " + id, LocalDateTime.of(2024, 1, 1, 0, 0) });
+        }
+        return rows;
+    }
+
+    private static PlaylistSong track(Long id, Long songId) {
+        PlaylistSong song = new PlaylistSong(null, songId, "Song " + id);
+        song.setId(id);
+        song.setAddedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return song;
+    }
+
+    private static List<Long> songIds(PlaylistTrackService.Tracks tracks) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < tracks.size(); i++) {
+            ids.add(tracks.getSongId(i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package com.musiclibrary.userservice.service;
+
+import com.musiclibrary.userservice.dto.VisibleSongIdsDTO;
+import com.musiclibrary.userservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SongIdFilterServiceTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final SongIdFilterService service = new SongIdFilterService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(service, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "adminServiceUrl", "http://admin");
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.0001);
+        ReflectionTestUtils.setField(service, "recentIdWindow", 10L);
+        ReflectionTestUtils.setField(service, "maxFallbackIds", 100);
+        service.initMetrics();
+        when(jwtUtil.generateServiceToken()).thenReturn("service-token");
+        when(restTemplate.exchange(eq("http://admin/api/songs/visible/ids"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(VisibleSongIdsDTO.class)))
+                .thenReturn(ResponseEntity.ok(new VisibleSongIdsDTO(1000, List.of(1L, 2L, 1000L))));
+        service.rebuild();
+    }
+
+    @Test
+    void rebuildSendsAServiceToken() {
+        ArgumentCaptor<HttpEntity> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).exchange(eq("http://admin/api/songs/visible/ids"), eq(HttpMethod.GET), request.capture(),
+                eq(VisibleSongIdsDTO.class));
+        assertEquals("Bearer service-token", request.getValue().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void missingIdGetsOneLookupPerRebuild() {
+        assertTrue(service.mightExist(1L));
+        assertTrue(service.mightExist(500L));
+        assertFalse(service.mightExist(500L));
+
+        service.rebuild();
+
+        assertTrue(service.mightExist(500L));
+    }
+}